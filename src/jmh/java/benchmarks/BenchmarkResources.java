@@ -0,0 +1,21 @@
+package benchmarks;
+
+import util.io.DirectoryResourceResolver;
+
+import java.nio.file.Paths;
+
+/**
+ * Resources of application for benchmarks. Benchmarks aren't run inside of application, so {@code start.Main} doesn't
+ * create resolver, and resources are taken from directory, which is specified by system property
+ * {@value #RESOURCES_PROPERTY} (Ant target {@code jmh} sets it to {@code src/main/resources}).
+ */
+public class BenchmarkResources {
+    public static final String RESOURCES_PROPERTY = "benchmark.resources";
+    private static final String DEFAULT_RESOURCES = "src/main/resources";
+
+    public static final DirectoryResourceResolver RESOLVER = new DirectoryResourceResolver(
+            Paths.get(System.getProperty(RESOURCES_PROPERTY, DEFAULT_RESOURCES)));
+
+    public static final String LEVEL_PACK_SCHEMA = RESOLVER.getPath("levels/level-pack-schema.xsd").toString();
+    public static final String SETTINGS_SCHEMA = RESOLVER.getPath("settings/settings-schema.xsd").toString();
+}
@@ -0,0 +1,91 @@
+package benchmarks;
+
+import levels.LevelGrid;
+import levels.cells.CellType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full traversals of grid, which gameplay does: search of start cell when level is opened, and check, that all cells
+ * are visited (gameplay keeps counter of cells instead, this scan is baseline for it).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelGridBenchmark {
+    @Param({"5", "50", "500"})
+    public int size;
+
+    private LevelGrid grid;
+
+    @Setup
+    public void setup() {
+        grid = SyntheticPacks.generateGrid(size, 0);
+
+        // All cells are visited, so scan of visited cells doesn't stop early
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++)
+                grid.setVisited(x, y, true);
+        }
+    }
+
+    /**
+     * Search of start cell by coordinates, as it's done when level is opened. Scan doesn't stop at start cell, so whole
+     * grid is traversed.
+     */
+    @Benchmark
+    public int startCellScan() {
+        int startIndex = -1;
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                if (grid.getCellType(x, y) == CellType.START)
+                    startIndex = grid.indexOf(x, y);
+            }
+        }
+        return startIndex;
+    }
+
+    /**
+     * The same search by indexes of cells, in order of storage.
+     */
+    @Benchmark
+    public int startCellScanByIndex() {
+        int startIndex = -1;
+        for (int i = 0; i < grid.getCellsCount(); i++) {
+            if (grid.getCellType(i) == CellType.START)
+                startIndex = i;
+        }
+        return startIndex;
+    }
+
+    @Benchmark
+    public boolean allCellsVisitedScan() {
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                if (grid.getCellType(x, y).mustBeVisited() && !grid.isVisited(x, y))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public LevelGrid resetVisited() {
+        grid.resetVisited();
+        return grid;
+    }
+}
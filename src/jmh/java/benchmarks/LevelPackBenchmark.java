@@ -0,0 +1,105 @@
+package benchmarks;
+
+import levels.LevelPack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading and serializing of XML level packs. Shapes are {@code <levels count>x<grid size>}: count of levels and size
+ * of grids are changed separately, because pack with 100 000 levels 500x500 would take gigabytes.
+ *
+ * <p>{@link LevelPack#fromXML(String, String)} only indexes levels, so {@link #fromXMLAndLastGrid()} also reads grid of
+ * the last level - it's the worst case of opening level right after loading.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LevelPackBenchmark {
+    @Param({"10x5", "1000x5", "100000x5", "10x50", "10x500"})
+    public String shape;
+
+    private LevelPack pack;
+    private String xmlPath;
+
+    @Setup
+    public void setup() throws IOException {
+        int[] size = SyntheticPacks.parseShape(shape);
+        pack = SyntheticPacks.generate(size[0], size[1]);
+
+        Path path = SyntheticPacks.writeTempXML(pack);
+        xmlPath = path.toString();
+    }
+
+    @Benchmark
+    public LevelPack fromXML() {
+        return LevelPack.fromXML(xmlPath, BenchmarkResources.LEVEL_PACK_SCHEMA);
+    }
+
+    @Benchmark
+    public Object fromXMLAndLastGrid() {
+        LevelPack loaded = LevelPack.fromXML(xmlPath, BenchmarkResources.LEVEL_PACK_SCHEMA);
+        return loaded.getLevel(loaded.levelsCount() - 1).getGrid();
+    }
+
+    @Benchmark
+    public String toXML() {
+        return pack.toXML();
+    }
+
+    /**
+     * Serializing without building of string, as it's done when pack is written to file.
+     */
+    @Benchmark
+    public long writeTo() throws IOException {
+        CountingWriter writer = new CountingWriter();
+        pack.writeTo(writer);
+        return writer.count;
+    }
+
+    /**
+     * Writer, which only counts characters, so only serializing itself is measured.
+     */
+    private static class CountingWriter extends Writer {
+        long count = 0;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void write(String string, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void write(int c) {
+            count++;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
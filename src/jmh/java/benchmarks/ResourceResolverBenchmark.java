@@ -0,0 +1,49 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import util.io.DirectoryResourceResolver;
+import util.io.ResourceResolver;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving of resources, which is done each time when application needs path to level pack, scene or schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceResolverBenchmark {
+    private final ResourceResolver resolver = BenchmarkResources.RESOLVER;
+
+    @Benchmark
+    public Path getPath() {
+        return resolver.getPath("levels/level-pack-schema.xsd");
+    }
+
+    @Benchmark
+    public URL getURL() {
+        return resolver.getURL("settings/settings-schema.xsd");
+    }
+
+    /**
+     * Resolver, which is created for each lookup, so nothing is cached - it's the cost of the first lookup.
+     */
+    @Benchmark
+    public Path getPathUncached() {
+        return new DirectoryResourceResolver(BenchmarkResources.RESOLVER.getRoot())
+                .getPath("levels/level-pack-schema.xsd");
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import settings.Settings;
+import util.xml.XMLUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading, validating and serializing of settings. Real settings have about ten entries, bigger counts show how it
+ * scales.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SettingsBenchmark {
+    @Param({"10", "1000"})
+    public int entriesCount;
+
+    private Settings settings;
+    private String xmlPath;
+    private Document document;
+
+    @Setup
+    public void setup() throws IOException {
+        settings = new Settings();
+        for (int i = 0; i < entriesCount; i++)
+            settings.setSetting("key-" + i, "value of setting " + i);
+
+        Path path = Files.createTempFile("settings", ".xml");
+        path.toFile().deleteOnExit();
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            settings.writeTo(writer);
+        }
+
+        xmlPath = path.toString();
+        document = XMLUtils.parseDocument(xmlPath);
+    }
+
+    @Benchmark
+    public Settings fromXML() {
+        return Settings.fromXML(xmlPath, BenchmarkResources.SETTINGS_SCHEMA);
+    }
+
+    @Benchmark
+    public String toXML() {
+        return settings.toXML();
+    }
+
+    /**
+     * Only validation of parsed document, parsing isn't measured.
+     */
+    @Benchmark
+    public boolean validate() {
+        return XMLUtils.validate(document, BenchmarkResources.SETTINGS_SCHEMA);
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import levels.Level;
+import levels.LevelGrid;
+import levels.cells.CellType;
+import levels.game.Move;
+import levels.solver.LevelSolver;
+import levels.solver.ParallelLevelSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential solver against parallel one with different count of threads. Speed-up of {@link ParallelLevelSolver}
+ * depends on count of processors, so this benchmark must be run on machine with at least {@code threads} cores - on one
+ * core threads only change order of search.
+ *
+ * <p>Levels are 9x9 grids with some walls:</p>
+ * <ul>
+ *     <li>{@code unsolvable} - whole search tree is traversed, so time doesn't depend on luck of search order;</li>
+ *     <li>{@code solvable} - search stops at the first found path.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SolverBenchmark {
+    private static final int GRID_SIZE = 9;
+    /** Seeds of {@link #generateGrid(int, long) generated} levels, they're found by trying seeds one by one. */
+    private static final long UNSOLVABLE_SEED = 0;
+    private static final long SOLVABLE_SEED = 50;
+
+    @Param({"unsolvable", "solvable"})
+    public String level;
+
+    /** Count of threads of {@link ParallelLevelSolver}, {@code 0} - {@link LevelSolver}. */
+    @Param({"0", "1", "2", "4", "8"})
+    public int threads;
+
+    private Level solvedLevel;
+
+    @Setup
+    public void setup() {
+        long seed = level.equals("solvable") ? SOLVABLE_SEED : UNSOLVABLE_SEED;
+        solvedLevel = new Level(level, generateGrid(GRID_SIZE, seed), false);
+    }
+
+    @Benchmark
+    public Optional<List<Move>> solve() {
+        if (threads == 0)
+            return new LevelSolver(solvedLevel).solve();
+        return new ParallelLevelSolver(solvedLevel, threads).solve();
+    }
+
+    /**
+     * Generates grid: {@code size / 2} walls in random cells, start cell in the top left corner, finish cell - in
+     * random cell.
+     *
+     * @param size width and height of grid, at least {@code 2}
+     * @param seed seed of {@link Random}
+     * @return generated grid.
+     */
+    private static LevelGrid generateGrid(int size, long seed) {
+        Random random = new Random(seed);
+
+        byte[] cells = new byte[size * size];
+        Arrays.fill(cells, CellType.EMPTY.getCode());
+        for (int i = 0; i < size / 2; i++)
+            cells[random.nextInt(cells.length)] = CellType.WALL.getCode();
+
+        cells[0] = CellType.START.getCode();
+        cells[1 + random.nextInt(cells.length - 1)] = CellType.FINISH.getCode();
+        return new LevelGrid(size, size, cells);
+    }
+}
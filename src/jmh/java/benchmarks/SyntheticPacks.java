@@ -0,0 +1,88 @@
+package benchmarks;
+
+import levels.Level;
+import levels.LevelGrid;
+import levels.LevelPack;
+import levels.cells.CellType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates level packs of any size for benchmarks. Levels aren't meant to be solvable, they're only valid by schema
+ * (one start cell, one finish cell) and have some walls, so grids aren't uniform.
+ */
+public class SyntheticPacks {
+    /** Each cell, which index is divisible by this, is wall. */
+    private static final int WALL_PERIOD = 7;
+
+    /**
+     * Parses shape of pack, for example {@code "1000x50"} - 1000 levels with grids 50x50.
+     *
+     * @param shape shape of pack
+     * @return {@code [levels count, size of grid]}.
+     * @throws IllegalArgumentException if shape isn't {@code <count>x<size>}.
+     */
+    public static int[] parseShape(String shape) {
+        String[] parts = shape.split("x");
+        if (parts.length != 2)
+            throw new IllegalArgumentException("Expected shape <levels count>x<grid size>, but got \"" + shape + "\"");
+
+        return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+    }
+
+    /**
+     * Generates pack.
+     *
+     * @param levelsCount count of levels
+     * @param size        width and height of each grid
+     * @return generated pack, all levels are loaded.
+     */
+    public static LevelPack generate(int levelsCount, int size) {
+        List<Level> levels = new ArrayList<>(levelsCount);
+        for (int i = 0; i < levelsCount; i++)
+            levels.add(new Level(String.valueOf(i + 1), generateGrid(size, i), i % 2 == 0));
+
+        return new LevelPack(levels, "Synthetic " + levelsCount + "x" + size);
+    }
+
+    /**
+     * Generates grid. Start cell is in the top left corner, finish cell - in the bottom right corner, walls are shifted by
+     * {@code seed}, so grids of different levels differ.
+     *
+     * @param size width and height of grid, at least {@code 2}
+     * @param seed any number
+     * @return generated grid.
+     */
+    public static LevelGrid generateGrid(int size, int seed) {
+        byte[] cells = new byte[size * size];
+        for (int i = 0; i < cells.length; i++)
+            cells[i] = (i + seed) % WALL_PERIOD == 0 ? CellType.WALL.getCode() : CellType.EMPTY.getCode();
+
+        cells[0] = CellType.START.getCode();
+        cells[cells.length - 1] = CellType.FINISH.getCode();
+        return new LevelGrid(size, size, cells);
+    }
+
+    /**
+     * Writes generated pack to temporary XML file, which is deleted when JVM exits.
+     *
+     * @param pack pack to write
+     * @return path to file.
+     * @throws IOException if file can't be written.
+     */
+    public static Path writeTempXML(LevelPack pack) throws IOException {
+        Path path = Files.createTempFile("synthetic-pack", ".xml");
+        path.toFile().deleteOnExit();
+
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            pack.writeTo(writer);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,320 @@
+package levels;
+
+import levels.cells.CellType;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Level pack in compact binary format. File is mapped into memory ({@link FileChannel#map}), and levels are read from it
+ * only when they're requested, so opening of pack doesn't depend on count of levels, and only pages of used levels are
+ * touched.
+ *
+ * <p>Format (all numbers are big-endian):</p>
+ * <pre><code>
+ * header:       int magic ("PLPK"), int version, int levelsCount, short nameLength, byte[nameLength] name (UTF-8)
+ * offset table: int[levelsCount] - offset of each level record from the start of file
+ * level record: byte numberLength, byte[numberLength] number (UTF-8), byte completed (0 or 1),
+ *               short width, short height, byte[(width * height * 3 + 7) / 8] cells
+ * </code></pre>
+ *
+ * <p>Cells are stored column by column (like in {@link LevelGrid}), {@value #BITS_PER_CELL} bits per cell
+ * ({@link CellType#getCode() code of cell type}). Cell with index {@code i} takes bits from {@code i * 3} to
+ * {@code i * 3 + 2}, bits are counted from the lowest bit of the first byte.</p>
+ *
+ * <pre><code>
+ * BinaryLevelPack.write(LevelPack.fromXML("classic.xml"), Paths.get("classic.plpk"));
+ * Level level = BinaryLevelPack.open(Paths.get("classic.plpk")).getLevel(41);
+ * </code></pre>
+ *
+ * @see LevelPackConverter
+ */
+public class BinaryLevelPack {
+    /** First bytes of file, {@code "PLPK"} in ASCII. */
+    public static final int MAGIC = 0x504C504B;
+    public static final int VERSION = 1;
+    public static final int BITS_PER_CELL = 3;
+    private static final int CELL_MASK = (1 << BITS_PER_CELL) - 1;
+    private static final int CELL_TYPES_COUNT = CellType.values().length;
+    private static final int START_CODE = CellType.START.getCode();
+    private static final int FINISH_CODE = CellType.FINISH.getCode();
+    /** Size of header without name: magic, version, count of levels and length of name. */
+    private static final int FIXED_HEADER_SIZE = 4 + 4 + 4 + 2;
+
+    private final MappedByteBuffer buffer;
+    private final int offsetTableStart;
+
+    private final String name;
+    public String getName() {
+        return name;
+    }
+
+    private final int levelsCount;
+    public int levelsCount() {
+        return levelsCount;
+    }
+
+    private BinaryLevelPack(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        buffer.order(ByteOrder.BIG_ENDIAN);
+
+        if (buffer.capacity() < FIXED_HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("File isn\'t binary level pack");
+        if (buffer.getInt(4) != VERSION)
+            throw new IllegalArgumentException("Unsupported version of binary level pack: " + buffer.getInt(4));
+
+        this.levelsCount = buffer.getInt(8);
+        int nameLength = buffer.getShort(12) & 0xFFFF;
+        if (FIXED_HEADER_SIZE + nameLength > buffer.capacity())
+            throw new IllegalArgumentException("Binary level pack is damaged: invalid length of name " + nameLength);
+        this.name = readString(FIXED_HEADER_SIZE, nameLength);
+        this.offsetTableStart = FIXED_HEADER_SIZE + nameLength;
+
+        if (levelsCount < 0 || (long) offsetTableStart + levelsCount * 4L > buffer.capacity())
+            throw new IllegalArgumentException("Binary level pack is damaged: invalid count of levels " + levelsCount);
+    }
+
+    /**
+     * Opens pack. Only header is read here, levels are read by {@link #getLevel(int)}.
+     *
+     * @param path path to file with pack
+     * @return opened pack.
+     * @throws IOException              if file can't be read or mapped.
+     * @throws IllegalArgumentException if file isn't binary level pack, has unsupported version or damaged header.
+     */
+    public static BinaryLevelPack open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Mapping stays valid after channel is closed
+            return new BinaryLevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public String getLevelNumber(int index) {
+        int offset = levelOffset(index);
+        int length = buffer.get(offset) & 0xFF;
+        if (offset + 1 + length > buffer.capacity())
+            throw new IllegalArgumentException("Binary level pack is damaged: number of level " + index +
+                    " is outside of file");
+        return readString(offset + 1, length);
+    }
+
+    public boolean isLevelCompleted(int index) {
+        // Completion flag is right before width and height
+        return buffer.get(sizeOffset(index) - 1) != 0;
+    }
+
+    public int getLevelWidth(int index) {
+        return buffer.getShort(sizeOffset(index)) & 0xFFFF;
+    }
+
+    public int getLevelHeight(int index) {
+        return buffer.getShort(sizeOffset(index) + 2) & 0xFFFF;
+    }
+
+    /**
+     * Reads grid of level. Each call creates new grid.
+     *
+     * @param index index of level in pack
+     * @return grid of level.
+     * @throws IndexOutOfBoundsException if there's no level with such index.
+     * @throws IllegalArgumentException  if pack is damaged: cells are outside of file, some cell is unknown, or grid
+     *                                   hasn't exactly one start and one finish cell.
+     */
+    public LevelGrid getGrid(int index) {
+        int offset = sizeOffset(index);
+        int width = buffer.getShort(offset) & 0xFFFF;
+        int height = buffer.getShort(offset + 2) & 0xFFFF;
+        int cellsStart = offset + 4;
+
+        long cellsCount = (long) width * height;
+        if (cellsStart + (cellsCount * BITS_PER_CELL + 7) / 8 > buffer.capacity())
+            throw new IllegalArgumentException("Binary level pack is damaged: cells of level " + index +
+                    " are outside of file");
+
+        int startsCount = 0;
+        int finishesCount = 0;
+        byte[] cells = new byte[(int) cellsCount];
+        for (int i = 0; i < cells.length; i++) {
+            int bit = i * BITS_PER_CELL;
+            int byteIndex = cellsStart + (bit >>> 3);
+
+            int bits = buffer.get(byteIndex) & 0xFF;
+            // Cell can be split between two bytes
+            if ((bit & 7) + BITS_PER_CELL > 8)
+                bits |= (buffer.get(byteIndex + 1) & 0xFF) << 8;
+
+            int code = (bits >>> (bit & 7)) & CELL_MASK;
+            if (code >= CELL_TYPES_COUNT)
+                throw new IllegalArgumentException("Binary level pack is damaged: unknown cell code " + code);
+            cells[i] = (byte) code;
+
+            if (code == START_CODE)
+                startsCount++;
+            else if (code == FINISH_CODE)
+                finishesCount++;
+        }
+
+        if (startsCount != 1 || finishesCount != 1)
+            throw new IllegalArgumentException("Binary level pack is damaged: level " + index + " must have one " +
+                    "start and one finish cell, but it has " + startsCount + " start and " + finishesCount +
+                    " finish cells");
+
+        return new LevelGrid(width, height, cells);
+    }
+
+    /**
+     * Reads level. Each call creates new level.
+     *
+     * @param index index of level in pack
+     * @return level with grid.
+     * @throws IndexOutOfBoundsException if there's no level with such index.
+     */
+    public Level getLevel(int index) {
+        return new Level(getLevelNumber(index), getGrid(index), isLevelCompleted(index));
+    }
+
+    /**
+     * Reads all levels. Grids aren't read here: each level reads its grid from this pack, when grid is needed (see
+     * {@link Level#getGrid()}), so pages with cells of not played levels aren't touched.
+     *
+     * @return level pack with all levels of this pack.
+     */
+    public LevelPack toLevelPack() {
+        ArrayList<Level> levels = new ArrayList<>(levelsCount);
+        for (int i = 0; i < levelsCount; i++) {
+            final int index = i;
+            levels.add(new Level(getLevelNumber(i), isLevelCompleted(i), getLevelWidth(i), getLevelHeight(i),
+                    () -> getGrid(index)));
+        }
+
+        return new LevelPack(levels, name);
+    }
+
+    private int levelOffset(int index) {
+        if (index < 0 || index >= levelsCount)
+            throw new IndexOutOfBoundsException("Index: " + index + ", levels count: " + levelsCount);
+
+        int offset = buffer.getInt(offsetTableStart + index * 4);
+        if (offset < offsetTableStart || offset >= buffer.capacity())
+            throw new IllegalArgumentException("Binary level pack is damaged: invalid offset of level " + index);
+        return offset;
+    }
+
+    /**
+     * @param index index of level
+     * @return offset of width and height in record of level (they're after number and completion flag).
+     */
+    private int sizeOffset(int index) {
+        int offset = levelOffset(index);
+        int sizeOffset = offset + 1 + (buffer.get(offset) & 0xFF) + 1;
+        if (sizeOffset + 4 > buffer.capacity())
+            throw new IllegalArgumentException("Binary level pack is damaged: record of level " + index +
+                    " is outside of file");
+        return sizeOffset;
+    }
+
+    private String readString(int offset, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+            bytes[i] = buffer.get(offset + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    //////////////////////////////////// Writing ////////////////////////////////////
+    /**
+     * Writes level pack in binary format. Sizes of all levels are checked before writing, and file is written to
+     * temporary file, which then replaces target file, so there's never half-written pack at target path.
+     *
+     * @param pack pack to write
+     * @param path path to file. If file exists, it's overwritten
+     * @throws IOException              if file can't be written.
+     * @throws IllegalArgumentException if name of pack or number of some level is too long, or if level is too big.
+     */
+    public static void write(LevelPack pack, Path path) throws IOException {
+        byte[] name = pack.getName().getBytes(StandardCharsets.UTF_8);
+        if (name.length > 0xFFFF)
+            throw new IllegalArgumentException("Name of pack is too long");
+
+        // Offsets of records are computed from sizes of levels, so grids aren't loaded for it
+        List<Level> levels = pack.getLevels();
+        byte[][] numbers = new byte[levels.size()][];
+        int[] offsets = new int[levels.size()];
+        long offset = FIXED_HEADER_SIZE + name.length + levels.size() * 4L;
+        for (int i = 0; i < numbers.length; i++) {
+            Level level = levels.get(i);
+            numbers[i] = level.getNumber().getBytes(StandardCharsets.UTF_8);
+            if (numbers[i].length > 0xFF)
+                throw new IllegalArgumentException("Number of level \"" + level.getNumber() + "\" is too long");
+            if (level.getWidth() > 0xFFFF || level.getHeight() > 0xFFFF)
+                throw new IllegalArgumentException("Level \"" + level.getNumber() + "\" is too big");
+            if (offset > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Level pack is too big for binary format");
+
+            offsets[i] = (int) offset;
+            long cellsCount = (long) level.getWidth() * level.getHeight();
+            offset += 1 + numbers[i].length + 1 + 2 + 2 + packedCellsSize(cellsCount);
+        }
+
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tempPath)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(levels.size());
+                out.writeShort(name.length);
+                out.write(name);
+
+                for (int levelOffset : offsets)
+                    out.writeInt(levelOffset);
+
+                for (int i = 0; i < levels.size(); i++) {
+                    Level level = levels.get(i);
+                    LevelGrid grid = level.getGrid();
+
+                    out.writeByte(numbers[i].length);
+                    out.write(numbers[i]);
+                    out.writeByte(level.isCompleted() ? 1 : 0);
+                    out.writeShort(grid.getWidth());
+                    out.writeShort(grid.getHeight());
+                    out.write(packCells(grid));
+                }
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+    }
+
+    private static long packedCellsSize(long cellsCount) {
+        return (cellsCount * BITS_PER_CELL + 7) / 8;
+    }
+
+    private static byte[] packCells(LevelGrid grid) {
+        byte[] packed = new byte[(int) packedCellsSize(grid.getCellsCount())];
+
+        for (int i = 0; i < grid.getCellsCount(); i++) {
+            int bit = i * BITS_PER_CELL;
+            int code = grid.getCellType(i).getCode();
+
+            packed[bit >>> 3] |= code << (bit & 7);
+            // Cell can be split between two bytes
+            if ((bit & 7) + BITS_PER_CELL > 8)
+                packed[(bit >>> 3) + 1] |= code >>> (8 - (bit & 7));
+        }
+
+        return packed;
+    }
+}
@@ -0,0 +1,343 @@
+package levels;
+
+import levels.cells.CellType;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Reader and writer for <b>&#x00AB;Compressed Level Store Format&#x00BB;</b> - text format, where each cell is one
+ * character, and each line is one column of game field (the same format, which is used by
+ * {@code level-utils/simple_uncompressing.py}, but for whole packs):
+ *
+ * <pre><code>
+ * pack Classic
+ *
+ * # Comments start with '#'
+ * level 1 completed
+ * ee
+ * fs
+ *
+ * level 2
+ * eee
+ * ewe
+ * efs
+ * </code></pre>
+ *
+ * <ul>
+ *     <li>Characters of cells: {@code w} - wall, {@code e} - empty, {@code s} - start, {@code f} - finish,
+ *     {@code b} - background. Spaces are ignored.</li>
+ *     <li>Line {@code pack <name>} sets name of pack. If it isn't before the first level, it's the start of next
+ *     concatenated pack, and its name is ignored.</li>
+ *     <li>Line {@code level <number> [completed]} starts new level. It can be omitted, then levels are numbered from
+ *     {@code 1} (by their order in stream) and aren't completed.</li>
+ *     <li>There're no escapes: name of pack can't be empty, contain line breaks, or start or end with whitespace, and
+ *     number of level can't be empty or contain whitespace. Writer rejects packs, which can't be read back.</li>
+ *     <li>Empty line ends level. Several packs can be concatenated into one stream (for example, with {@code cat}) -
+ *     their levels just follow each other.</li>
+ * </ul>
+ *
+ * <p>Stream is read line by line, only one level is kept in memory while it's being read.</p>
+ */
+public class CompressedLevelFormat {
+    private static final String PACK_PREFIX = "pack ";
+    private static final String LEVEL_PREFIX = "level ";
+    private static final String COMPLETED_FLAG = "completed";
+
+    /**
+     * Reads level pack from file.
+     *
+     * @param path path to file (UTF-8)
+     * @return read level pack. If file hasn't {@code pack} line, name of pack is name of file.
+     * @throws IOException              if file can't be read.
+     * @throws IllegalArgumentException if file has syntax errors, or some level isn't rectangular or hasn't exactly one
+     *                                  start and one finish cell.
+     */
+    public static LevelPack read(Path path) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return read(reader, path.getFileName().toString());
+        }
+    }
+
+    /**
+     * Reads level pack from stream.
+     *
+     * @param reader      stream with pack. It isn't closed
+     * @param defaultName name of pack if stream hasn't {@code pack} line
+     * @return read level pack.
+     * @throws IOException              if stream can't be read.
+     * @throws IllegalArgumentException if stream has syntax errors, or some level isn't rectangular or hasn't exactly
+     *                                  one start and one finish cell.
+     */
+    public static LevelPack read(Reader reader, String defaultName) throws IOException {
+        ArrayList<Level> levels = new ArrayList<>();
+        String name = readLevels(reader, levels::add);
+
+        return new LevelPack(levels, name == null ? defaultName : name);
+    }
+
+    /**
+     * Reads levels from stream one by one and gives each level to consumer right after it's read, so levels of big
+     * streams don't have to be kept together.
+     *
+     * @param reader   stream with levels. It isn't closed
+     * @param consumer receiver of levels
+     * @return name of pack from {@code pack} line, or {@code null} if there's no such line.
+     * @throws IOException              if stream can't be read.
+     * @throws IllegalArgumentException if stream has syntax errors, or some level isn't rectangular or hasn't exactly
+     *                                  one start and one finish cell.
+     */
+    public static String readLevels(Reader reader, Consumer<Level> consumer) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        LevelBuilder builder = new LevelBuilder();
+        String packName = null;
+        int levelsCount = 0;
+
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+
+            if (trimmed.startsWith("#"))
+                continue;
+
+            if (trimmed.isEmpty()) {
+                if (builder.hasCells()) {
+                    consumer.accept(builder.build(++levelsCount));
+                    builder = new LevelBuilder();
+                }
+            } else if (trimmed.startsWith(PACK_PREFIX)) {
+                if (builder.hasCells()) {
+                    consumer.accept(builder.build(++levelsCount));
+                    builder = new LevelBuilder();
+                }
+                if (builder.number != null)
+                    throw syntaxError(lineNumber, "level \"" + builder.number + "\" has no cells");
+
+                // Next packs of concatenated stream just continue the first one
+                if (levelsCount == 0 && packName == null)
+                    packName = trimmed.substring(PACK_PREFIX.length()).trim();
+            } else if (trimmed.startsWith(LEVEL_PREFIX)) {
+                if (builder.hasCells()) {
+                    consumer.accept(builder.build(++levelsCount));
+                    builder = new LevelBuilder();
+                }
+                if (builder.number != null)
+                    throw syntaxError(lineNumber, "level \"" + builder.number + "\" has no cells");
+
+                String[] parts = trimmed.substring(LEVEL_PREFIX.length()).trim().split("\\s+");
+                if (parts.length > 2 || (parts.length == 2 && !parts[1].equals(COMPLETED_FLAG)))
+                    throw syntaxError(lineNumber, "expected \"level <number> [completed]\"");
+                builder.number = parts[0];
+                builder.completed = parts.length == 2;
+            } else
+                builder.addColumn(trimmed, lineNumber);
+        }
+
+        if (builder.hasCells())
+            consumer.accept(builder.build(++levelsCount));
+        else if (builder.number != null)
+            throw syntaxError(lineNumber, "level \"" + builder.number + "\" has no cells");
+
+        return packName;
+    }
+
+    /**
+     * Writes level pack to file.
+     *
+     * @param pack pack to write
+     * @param path path to file (UTF-8). If file exists, it's overwritten
+     * @throws IOException              if file can't be written.
+     * @throws IllegalArgumentException if name of pack or number of some level can't be written in this format.
+     */
+    public static void write(LevelPack pack, Path path) throws IOException {
+        // File isn't created for pack, which can't be written
+        checkPack(pack);
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            write(pack, writer);
+        }
+    }
+
+    /**
+     * Writes level pack to stream.
+     *
+     * @param pack   pack to write
+     * @param writer stream. It isn't closed
+     * @throws IOException              if stream can't be written.
+     * @throws IllegalArgumentException if name of pack or number of some level can't be written in this format. It's
+     *                                  checked before anything is written.
+     */
+    public static void write(LevelPack pack, Writer writer) throws IOException {
+        checkPack(pack);
+
+        BufferedWriter out = writer instanceof BufferedWriter ? (BufferedWriter) writer : new BufferedWriter(writer);
+
+        out.write(PACK_PREFIX);
+        out.write(pack.getName());
+        out.newLine();
+
+        for (Level level : pack.getLevels()) {
+            out.newLine();
+            out.write(LEVEL_PREFIX);
+            out.write(level.getNumber());
+            if (level.isCompleted()) {
+                out.write(' ');
+                out.write(COMPLETED_FLAG);
+            }
+            out.newLine();
+
+            LevelGrid grid = level.getGrid();
+            for (int x = 0; x < grid.getWidth(); x++) {
+                for (int y = 0; y < grid.getHeight(); y++)
+                    out.write(charFromCell(grid.getCellType(x, y)));
+                out.newLine();
+            }
+        }
+
+        out.flush();
+    }
+
+    private static void checkPack(LevelPack pack) {
+        checkName(pack.getName());
+        for (Level level : pack.getLevels())
+            checkNumber(level.getNumber());
+    }
+
+    /**
+     * Checks, that name of pack is read back the same: {@code pack} line is trimmed, and it ends at line break.
+     */
+    private static void checkName(String name) {
+        if (name.isEmpty() || !name.trim().equals(name) || name.indexOf('\n') != -1 || name.indexOf('\r') != -1)
+            throw new IllegalArgumentException("Name of pack \"" + name + "\" can\'t be written: it mustn\'t be " +
+                    "empty, contain line breaks, or start or end with whitespace");
+    }
+
+    /**
+     * Checks, that number of level is read back the same: {@code level} line is split by whitespace.
+     */
+    private static void checkNumber(String number) {
+        boolean valid = !number.isEmpty();
+        for (int i = 0; i < number.length() && valid; i++)
+            valid = number.charAt(i) > ' ';
+
+        if (!valid)
+            throw new IllegalArgumentException("Number of level \"" + number + "\" can\'t be written: it mustn\'t " +
+                    "be empty or contain whitespace");
+    }
+
+    private static char charFromCell(CellType cellType) {
+        switch (cellType) {
+            case WALL:
+                return 'w';
+
+            case EMPTY:
+                return 'e';
+
+            case START:
+                return 's';
+
+            case FINISH:
+                return 'f';
+
+            case BACKGROUND_SQUARE:
+                return 'b';
+
+            default:
+                throw new IllegalArgumentException("Unsupported cell type " + cellType);
+        }
+    }
+
+    private static IllegalArgumentException syntaxError(int lineNumber, String message) {
+        return new IllegalArgumentException("Line " + lineNumber + ": " + message);
+    }
+
+    /**
+     * Collects columns of one level.
+     */
+    private static class LevelBuilder {
+        String number;
+        boolean completed;
+
+        /** Cell codes of all columns, one after another. */
+        byte[] cells = new byte[64];
+        int cellsCount = 0;
+        int width = 0;
+        int height = -1;
+        int startsCount = 0;
+        int finishesCount = 0;
+
+        boolean hasCells() {
+            return width > 0;
+        }
+
+        void addColumn(String line, int lineNumber) {
+            int columnHeight = 0;
+
+            for (int i = 0; i < line.length(); i++) {
+                byte code;
+                switch (line.charAt(i)) {
+                    case ' ':
+                    case '\t':
+                        continue;
+
+                    case 'w':
+                        code = CellType.WALL.getCode();
+                        break;
+
+                    case 'e':
+                        code = CellType.EMPTY.getCode();
+                        break;
+
+                    case 's':
+                        code = CellType.START.getCode();
+                        startsCount++;
+                        break;
+
+                    case 'f':
+                        code = CellType.FINISH.getCode();
+                        finishesCount++;
+                        break;
+
+                    case 'b':
+                        code = CellType.BACKGROUND_SQUARE.getCode();
+                        break;
+
+                    default:
+                        throw syntaxError(lineNumber, "unsupported cell \'" + line.charAt(i) + "\'");
+                }
+
+                if (cellsCount == cells.length)
+                    cells = Arrays.copyOf(cells, cells.length * 2);
+                cells[cellsCount++] = code;
+                columnHeight++;
+            }
+
+            if (height == -1)
+                height = columnHeight;
+            else if (height != columnHeight)
+                throw syntaxError(lineNumber, "level isn\'t rectangular: column " + width + " has " + columnHeight +
+                        " cells, but previous columns have " + height + " cells");
+            width++;
+        }
+
+        Level build(int index) {
+            String levelNumber = number != null ? number : String.valueOf(index);
+            if (startsCount != 1 || finishesCount != 1)
+                throw new IllegalArgumentException("Level \"" + levelNumber + "\" must have one start and one finish " +
+                        "cell, but it has " + startsCount + " start and " + finishesCount + " finish cells");
+
+            return new Level(levelNumber, new LevelGrid(width, height, Arrays.copyOf(cells, cellsCount)),
+                    completed);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package levels;
+
+/**
+ * Source of {@link LevelGrid level grid}. It's used by {@link Level}, which loads its grid only when grid is needed for the
+ * first time (see {@link Level#getGrid()}).
+ */
+@FunctionalInterface
+public interface GridSource {
+    /**
+     * Loads grid. Each call creates new grid.
+     *
+     * @return loaded grid.
+     * @throws RuntimeException if grid can't be loaded.
+     */
+    LevelGrid loadGrid();
+}
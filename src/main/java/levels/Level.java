@@ -1,31 +1,16 @@
 package levels;
 
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
-import javafx.scene.control.Button;
-import javafx.scene.control.Label;
-import javafx.scene.control.ProgressBar;
-import javafx.scene.layout.BorderPane;
-import javafx.scene.layout.FlowPane;
-import javafx.scene.layout.Region;
-import javafx.scene.text.Font;
-import levels.cells.LevelCell;
-import mvc.help.ExternalStorage;
-import start.Main;
-
-import java.util.ArrayList;
+import java.lang.ref.SoftReference;
 
 /**
- * Class for storing data about <b>one</b> level.
+ * Class for storing data about <b>one</b> level. It's pure data, without JavaFX nodes, so levels can be loaded without
+ * JavaFX (buttons of levels are made by {@link mvc.controllers.LevelSelectController}).
  *
  * @see #number
  * @see #completed
- * @see #grid
+ * @see #getGrid()
  */
 public class Level implements Cloneable {
-    public static final int LEVEL_BUTTON_MARGIN = 20;
-    private static final int LEVEL_COMPLETION_BAR_SPACING = 2;
-    private static final int LEVEL_BUTTON_SIZE = 60;
     /** Level's number. XSD schema for level packs says, that level number's min length is {@code 1}, and max length is
      * {@code 5}. */
     private String number;
@@ -39,75 +24,72 @@ public class Level implements Cloneable {
     }
     public void setCompleted(boolean completed) {
         this.completed = completed;
-        buttonRepresentation.setDisable(!completed);
-        levelCompletionBar.setProgress(1);
     }
 
 
-    private ArrayList<ArrayList<LevelCell>> grid;
-    public ArrayList<ArrayList<LevelCell>> getGrid() {
-        return grid;
-    }
-    /** Button representation of level, is used when selecting level. */
-    private Button buttonRepresentation;
-    public Button getButtonRepresentation() {
-        return buttonRepresentation;
+    private final int width;
+    public int getWidth() {
+        return width;
     }
 
-    private ProgressBar levelCompletionBar;
-
-    public Level(String number, ArrayList<ArrayList<levels.cells.LevelCell>> grid, boolean completed) {
-        this.number = number;
-        this.completed = completed;
-        this.grid = grid;
-        this.buttonRepresentation = makeButtonRepresentation();
+    private final int height;
+    public int getHeight() {
+        return height;
     }
 
-    private Button makeButtonRepresentation() {
-        Button buttonRepresentation = makeLevelButton();
-        if (!completed)
-            buttonRepresentation.setDisable(true);
-
-        buttonRepresentation.setOnMouseClicked(event -> {
-            ExternalStorage.getInstance().currentLevel = this;
-            Main.changeScene("game-field.fxml", " - " + Main.getLocaleStr("header.game-play"));
-        });
-
-        return buttonRepresentation;
+    /** Source of grid, it's used when grid is needed for the first time, or when loaded grid was collected by GC. */
+    private final GridSource gridSource;
+    /** Loaded grid. It's soft, so grids of levels, which aren't played, can be collected when memory is low. */
+    private SoftReference<LevelGrid> gridReference;
+    /**
+     * Gets grid of level. Grid is loaded from {@link GridSource} on the first call, and then it's reused while it's in
+     * memory.
+     *
+     * @return grid of level.
+     * @throws IllegalStateException if loaded grid has other size, than level (for example, if file was changed).
+     */
+    public synchronized LevelGrid getGrid() {
+        LevelGrid grid = gridReference == null ? null : gridReference.get();
+        if (grid == null) {
+            grid = gridSource.loadGrid();
+            if (grid.getWidth() != width || grid.getHeight() != height)
+                throw new IllegalStateException("Grid of level \"" + number + "\" has size " + grid.getWidth() + "x" +
+                        grid.getHeight() + ", but " + width + "x" + height + " was expected");
+            gridReference = new SoftReference<>(grid);
+        }
+        return grid;
     }
-
-    private Button makeLevelButton() {
-        Label levelNumber = makeNumberLabel();
-        // If level is completed - this bar will be filled on 100%, otherwise - on 0%
-        levelCompletionBar = makeLevelCompletionBar();
-
-        Button buttonRepresentation = new Button("", new BorderPane(levelNumber, null, null, levelCompletionBar, null));
-
-        buttonRepresentation.setPadding(new Insets(0, 0, LEVEL_COMPLETION_BAR_SPACING, 0));
-        buttonRepresentation.setPrefSize(LEVEL_BUTTON_SIZE, LEVEL_BUTTON_SIZE);
-        buttonRepresentation.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
-        FlowPane.setMargin(buttonRepresentation, new Insets(0, LEVEL_BUTTON_MARGIN, LEVEL_BUTTON_MARGIN, 0));
-
-        return buttonRepresentation;
+    public synchronized boolean isGridLoaded() {
+        return gridReference != null && gridReference.get() != null;
     }
-
-    private Label makeNumberLabel() {
-        Label levelNumber = new Label(number);
-
-        levelNumber.setFont(new Font(Main.APP_FONT_NAME, 15));
-        BorderPane.setAlignment(levelNumber, Pos.CENTER);
-
-        return levelNumber;
+    /**
+     * Creates level with already loaded grid. Grid is kept by level all the time.
+     *
+     * @param number    number of level
+     * @param grid      grid of level
+     * @param completed is level completed
+     */
+    public Level(String number, LevelGrid grid, boolean completed) {
+        // Source holds grid, so it's never collected
+        this(number, completed, grid.getWidth(), grid.getHeight(), () -> grid);
+        this.gridReference = new SoftReference<>(grid);
     }
 
-    private ProgressBar makeLevelCompletionBar() {
-        ProgressBar levelCompletionBar = new ProgressBar();
-
-        levelCompletionBar.setProgress(completed ? 1 : 0);
-        BorderPane.setAlignment(levelCompletionBar, Pos.BOTTOM_CENTER);
-        levelCompletionBar.setPrefWidth(LEVEL_BUTTON_SIZE - LEVEL_COMPLETION_BAR_SPACING * 2);
-        levelCompletionBar.setMouseTransparent(true);
-
-        return levelCompletionBar;
+    /**
+     * Creates level, which loads its grid only when it's needed (see {@link #getGrid()}). So level packs can be loaded
+     * without building grids of all levels.
+     *
+     * @param number     number of level
+     * @param completed  is level completed
+     * @param width      width of grid
+     * @param height     height of grid
+     * @param gridSource source of grid
+     */
+    public Level(String number, boolean completed, int width, int height, GridSource gridSource) {
+        this.number = number;
+        this.completed = completed;
+        this.width = width;
+        this.height = height;
+        this.gridSource = gridSource;
     }
 }
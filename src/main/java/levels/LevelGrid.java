@@ -0,0 +1,152 @@
+package levels;
+
+import levels.cells.CellType;
+import levels.cells.LevelCell;
+
+import java.util.BitSet;
+
+/**
+ * Compact storage of level's game field. Instead of keeping one object per cell, grid stores types of cells in flat
+ * {@code byte} array (one byte per cell, {@link CellType#getCode() code of cell type}) and "visited" flags in
+ * {@link BitSet}.
+ *
+ * <p>Cells are stored column by column (like in level pack XML), so cell with coordinates {@code (x, y)} has index
+ * {@code x * height + y}. Cells for drawing aren't stored at all - they're shared instances, see
+ * {@link LevelCell#of(CellType)}.</p>
+ *
+ * @see #indexOf(int, int)
+ */
+public class LevelGrid {
+    private final int width;
+    public int getWidth() {
+        return width;
+    }
+
+    private final int height;
+    public int getHeight() {
+        return height;
+    }
+
+    /** Types of cells. Each byte is {@link CellType#getCode() code} of cell type. */
+    private final byte[] cells;
+    /** "Visited" flags of cells. Bit index is {@link #indexOf(int, int) index of cell}. */
+    private final BitSet visited;
+    /** Count of cells, which {@link CellType#mustBeVisited() must be visited} to complete level. */
+    private final int cellsToVisitCount;
+    public int getCellsToVisitCount() {
+        return cellsToVisitCount;
+    }
+
+    /**
+     * Creates new grid.
+     *
+     * @param width  count of columns
+     * @param height count of cells in each column
+     * @param cells  {@link CellType#getCode() codes} of cells, column by column. <i><b>Note:</b> array isn't copied!</i>
+     * @throws IllegalArgumentException if size of array doesn't equal {@code width * height}.
+     */
+    public LevelGrid(int width, int height, byte[] cells) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Invalid grid size: " + width + "x" + height);
+        if (cells.length != width * height)
+            throw new IllegalArgumentException("Grid " + width + "x" + height + " can\'t contain " + cells.length +
+                    " cells");
+
+        this.width = width;
+        this.height = height;
+        this.cells = cells;
+        this.visited = new BitSet(cells.length);
+
+        int cellsToVisitCount = 0;
+        for (byte cell : cells) {
+            if (CellType.fromCode(cell).mustBeVisited())
+                cellsToVisitCount++;
+        }
+        this.cellsToVisitCount = cellsToVisitCount;
+    }
+
+    /**
+     * Returns count of all cells in grid.
+     *
+     * @return {@code width * height}.
+     */
+    public int getCellsCount() {
+        return cells.length;
+    }
+
+    /**
+     * Converts coordinates of cell to its index in grid.
+     *
+     * @param x column of cell
+     * @param y row of cell
+     * @return index of cell.
+     */
+    public int indexOf(int x, int y) {
+        return x * height + y;
+    }
+
+    /**
+     * Converts index of cell to its column.
+     *
+     * @param index index of cell
+     * @return {@code x} coordinate of cell.
+     */
+    public int xOf(int index) {
+        return index / height;
+    }
+
+    /**
+     * Converts index of cell to its row.
+     *
+     * @param index index of cell
+     * @return {@code y} coordinate of cell.
+     */
+    public int yOf(int index) {
+        return index % height;
+    }
+
+    /**
+     * Checks if coordinates are inside of grid.
+     *
+     * @param x column of cell
+     * @param y row of cell
+     * @return {@code true} if there's such cell in grid.
+     */
+    public boolean contains(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    public CellType getCellType(int x, int y) {
+        return CellType.fromCode(cells[indexOf(x, y)]);
+    }
+
+    public CellType getCellType(int index) {
+        return CellType.fromCode(cells[index]);
+    }
+
+    /**
+     * Returns cell for drawing. <i><b>Note:</b> cells are shared between all grids, they don't store any state.</i>
+     *
+     * @param x column of cell
+     * @param y row of cell
+     * @return shared instance of cell with type of cell at specified position.
+     */
+    public LevelCell getCell(int x, int y) {
+        return LevelCell.of(getCellType(x, y));
+    }
+
+    public boolean isVisited(int x, int y) {
+        return visited.get(indexOf(x, y));
+    }
+
+    public void setVisited(int x, int y, boolean visited) {
+        this.visited.set(indexOf(x, y), visited);
+    }
+
+    /**
+     * Marks all cells as not visited.
+     */
+    public void resetVisited() {
+        visited.clear();
+    }
+}
@@ -1,21 +1,20 @@
 package levels;
 
-import com.sun.org.apache.xerces.internal.dom.DeferredCommentImpl;
-import com.sun.org.apache.xerces.internal.dom.TextImpl;
-import levels.cells.*;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
+import levels.cells.CellType;
 import start.Main;
 import util.xml.XMLSerializable;
 import util.xml.XMLUtils;
 
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -69,47 +68,78 @@ public class LevelPack implements XMLSerializable {
             return Optional.empty();
     }
 
-    //////////////////////////////////// Serializing ////////////////////////////////////
-    public String toXML() {
-        final String indent = Main.XML_SERIALIZE_INDENT;
-        StringBuilder builder = new StringBuilder();
-
-        builder.append(generateXMLHeaders());
-        for (Level level : levels)
-            builder.append(levelToXML(level, indent));
-        builder.append(generateXMLClosers());
-
-        return builder.toString();
+    /**
+     * Checks if level can be played: completed levels, the first level, and levels after completed ones are unlocked.
+     *
+     * @param index index of level
+     * @return {@code true} if level is unlocked.
+     */
+    public boolean isLevelUnlocked(int index) {
+        return index == 0 || getLevel(index).isCompleted() || getLevel(index - 1).isCompleted();
     }
 
-    private String levelToXML(Level level, String indent) {
-        return generateXMLLevelHeaders(level, indent) +
-                levelGameFieldToXML(level, indent) +
-                generateXMLLevelClosers(indent);
+    //////////////////////////////////// Serializing ////////////////////////////////////
+    private static final String INDENT = Main.XML_SERIALIZE_INDENT;
+    private static final char[] COLUMN_START = (INDENT + INDENT + INDENT + "<column>\n").toCharArray();
+    private static final char[] COLUMN_END = (INDENT + INDENT + INDENT + "</column>\n").toCharArray();
+    /**
+     * Lines of cell tags (with indent and line break), index is {@link CellType#getCode() code of cell type}. They're
+     * made once, so writing of cell doesn't create any objects.
+     */
+    private static final char[][] CELL_LINES = new char[CellType.values().length][];
+    static {
+        for (CellType cellType : CellType.values()) {
+            CELL_LINES[cellType.getCode()] = (INDENT + INDENT + INDENT + INDENT + xmlTagFromCell(cellType) + "\n")
+                    .toCharArray();
+        }
     }
 
-    private String levelGameFieldToXML(Level level, String indent) {
-        StringBuilder builder = new StringBuilder();
-        for (ArrayList<LevelCell> column : level.getGrid()) {
-            builder.append(indent).append(indent).append(indent).append("<column>\n");
+    /**
+     * Writes level pack as XML, level by level, so whole document is never kept in memory.
+     *
+     * @param writer stream. It isn't closed
+     * @throws IOException if stream can't be written.
+     */
+    @Override
+    public void writeTo(Writer writer) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n\n" +
+                "<level-pack name=\"");
+        writer.write(name);
+        writer.write("\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
+                "            xsi:noNamespaceSchemaLocation=\"level-pack-schema.xsd\">\n");
 
-            for (LevelCell cell : column) {
-                builder.append(indent).append(indent).append(indent).append(indent)
-                        .append(xmlTagFromCell(cell)).append("\n");
-            }
+        for (Level level : levels)
+            writeLevel(level, writer);
 
-            builder.append(indent).append(indent).append(indent).append("</column>\n");
+        writer.write("</level-pack>\n");
+        writer.flush();
+    }
+
+    private void writeLevel(Level level, Writer writer) throws IOException {
+        writer.write(INDENT + "<level number=\"");
+        writer.write(level.getNumber());
+        writer.write(level.isCompleted() ? "\" completed=\"true\">\n" : "\" completed=\"false\">\n");
+        writer.write(INDENT + INDENT + "<game-field>\n");
+
+        LevelGrid grid = level.getGrid();
+        for (int x = 0; x < grid.getWidth(); x++) {
+            writer.write(COLUMN_START);
+            for (int y = 0; y < grid.getHeight(); y++)
+                writer.write(CELL_LINES[grid.getCellType(x, y).getCode()]);
+            writer.write(COLUMN_END);
         }
-        return builder.toString();
+
+        writer.write(INDENT + INDENT + "</game-field>\n" +
+                INDENT + "</level>\n");
     }
 
-    private String xmlTagFromCell(LevelCell cell) {
-        switch (cell.getType()) {
+    private static String xmlTagFromCell(CellType cellType) {
+        switch (cellType) {
             case EMPTY:
             case FINISH:
             case START:
             case WALL:
-                return String.format("<%-11s />", cell.getType().toString().toLowerCase());
+                return String.format("<%-11s />", cellType.toString().toLowerCase());
 
             case BACKGROUND_SQUARE:
                 return "<background />";
@@ -119,123 +149,185 @@ public class LevelPack implements XMLSerializable {
         }
     }
 
-    private String generateXMLLevelClosers(String indent) {
-        return indent + indent + "</game-field>\n" +
-                indent + "</level>\n";
-    }
 
-    private String generateXMLLevelHeaders(Level level, String indent) {
-        return indent + "<level number=\"" + level.getNumber() + "\" completed=\"" + level.isCompleted() + "\">\n" +
-                indent + indent + "<game-field>\n";
+    //////////////////////////////////// De-Serializing ////////////////////////////////////
+    /**
+     * Loads level pack from XML file. File is read once, as stream: it's validated by
+     * {@code levels/level-pack-schema.xsd} while being read, and for each level only its number, completion, size and
+     * position of {@code <game-field>} in file are remembered. Grids aren't built here, each of them is read from file
+     * when it's needed for the first time (see {@link Level#getGrid()} and {@link XMLGridSource}).
+     *
+     * @param filename path to XML file with level pack
+     * @return loaded level pack.
+     * @throws IllegalArgumentException if file isn't valid by schema, or if some level has unsupported cells, isn't
+     *                                  rectangular, or hasn't exactly one start and one finish cell.
+     * @throws RuntimeException         if file can't be read.
+     */
+    public static LevelPack fromXML(String filename) {
+        return fromXML(filename, Main.getResourcePath("levels/level-pack-schema.xsd"));
     }
 
-    private String generateXMLHeaders() {
-        return "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n\n" +
-                "<level-pack name=\"classic\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n" +
-                "            xsi:noNamespaceSchemaLocation=\"level-pack-schema.xsd\">\n";
+    /**
+     * Works like {@link #fromXML(String)}, but uses specified schema. It's needed when level packs are loaded outside of
+     * application (for example, by {@link LevelPackConverter}).
+     *
+     * @param filename     path to XML file with level pack
+     * @param pathToSchema path to XSD schema of level packs
+     * @return loaded level pack.
+     * @throws IllegalArgumentException if file isn't valid by schema, or if some level has unsupported cells, isn't
+     *                                  rectangular, or hasn't exactly one start and one finish cell.
+     * @throws RuntimeException         if file can't be read.
+     */
+    public static LevelPack fromXML(String filename, String pathToSchema) {
+        File file = new File(filename);
+        try (InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+            XMLStreamReader reader = XMLUtils.newValidatingReader(stream, file.toURI().toString(), pathToSchema);
+            try {
+                return readLevelPack(reader, file);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Invalid level pack \"" + filename + "\": " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
-    private String generateXMLClosers() {
-        return "</level-pack>\n";
+    private static LevelPack readLevelPack(XMLStreamReader reader, File file) throws XMLStreamException {
+        // Collection for levels
+        ArrayList<Level> levels = new ArrayList<>(0);
+
+        // Root element with levels
+        reader.nextTag();
+        reader.require(XMLStreamConstants.START_ELEMENT, null, "level-pack");
+        String name = reader.getAttributeValue(null, "name");
+
+        // Iterating each level
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+            levels.add(readLevel(reader, file));
+        reader.require(XMLStreamConstants.END_ELEMENT, null, "level-pack");
+
+        // Reading to the end, validation isn't finished before it
+        while (reader.hasNext())
+            reader.next();
+
+        return new LevelPack(levels, name);
     }
 
+    /**
+     * Reads one level. Reader must be on start tag of {@code <level>}, after reading it's on end tag of level. Cells are
+     * only counted (to check level), grid is loaded later by {@link XMLGridSource}.
+     *
+     * @param reader reader of level pack
+     * @param file   file, which is read
+     * @return read level without loaded grid.
+     * @throws XMLStreamException if reader fails or document isn't valid.
+     */
+    private static Level readLevel(XMLStreamReader reader, File file) throws XMLStreamException {
+        reader.require(XMLStreamConstants.START_ELEMENT, null, "level");
+        String number = reader.getAttributeValue(null, "number");
+        boolean completed = Boolean.parseBoolean(reader.getAttributeValue(null, "completed"));
 
-    //////////////////////////////////// De-Serializing ////////////////////////////////////
-    public static LevelPack fromXML(String filename) {
-        try {
-            // Collection for levels
-            ArrayList<Level> levels = new ArrayList<>(0);
-
-            // Document with level pack
-            Document document = XMLUtils.parseDocument(filename);
-            XMLUtils.validate(document, Main.getResourcePath("levels/level-pack-schema.xsd"));
-            XPath xPath = XPathFactory.newInstance().newXPath();
-
-            // Root element with levels
-            Element root = (Element) xPath.evaluate("/level-pack", document, XPathConstants.NODE);
-            // Iterating each level
-            for (int lvlI = 0; lvlI < root.getChildNodes().getLength(); lvlI++) {
-                // Protection for texts
-                if (!(root.getChildNodes().item(lvlI) instanceof TextImpl)) {
-                    Element levelElement = (Element) root.getChildNodes().item(lvlI);
-
-                    Element columns = (Element) xPath.evaluate("game-field", levelElement, XPathConstants.NODE);
-
-                    ArrayList<ArrayList<levels.cells.LevelCell>> levelGrid = new ArrayList<>(0);
-
-                    // Iterating columns
-                    for (int column = 0; column < columns.getChildNodes().getLength(); column++) {
-                        ArrayList<levels.cells.LevelCell> currentRow = new ArrayList<>(0);
-                        if (!(columns.getChildNodes().item(column) instanceof TextImpl)
-                                && !(columns.getChildNodes().item(column) instanceof DeferredCommentImpl)) {
-                            levelGrid.add(currentRow);
-
-                            // Iterating rows
-                            for (int cell = 0; cell < columns.getChildNodes().item(column).getChildNodes().getLength(); cell++) {
-                                Node currentCell = columns.getChildNodes().item(column).getChildNodes().item(cell);
-
-                                // Protection from texts
-                                if (!(currentCell instanceof TextImpl) && !(currentCell instanceof DeferredCommentImpl)) {
-                                    levels.cells.LevelCell cellToAdd = null;
-
-                                    switch (((Element) currentCell).getTagName()) {
-                                        case "wall":
-                                            cellToAdd = new WallCell();
-                                            break;
-
-                                        case "empty":
-                                            cellToAdd = new EmptyCell();
-                                            break;
-
-                                        case "start":
-                                            // We need to set start cell's property "visited" to true, because we haven't
-                                            // stepped on this cell before
-                                            cellToAdd = new StartCell();
-                                            cellToAdd.setVisited(true);
-                                            break;
-
-                                        case "finish":
-                                            cellToAdd = new FinishCell();
-                                            break;
-
-                                        case "background":
-                                            cellToAdd = new BackgroundSquare();
-                                            break;
-                                    }
-
-                                    currentRow.add(cellToAdd);
-                                }
-                            } // End of iterating cells in column
-                        }
-                    } // End of iterating columns
-
-                    levels.add(new Level(levelElement.getAttribute("number"), levelGrid,
-                            Boolean.parseBoolean(levelElement.getAttribute("completed"))));
-                }
-            }
-            enableNeededLevelButtons(levels);
+        reader.nextTag();
+        reader.require(XMLStreamConstants.START_ELEMENT, null, "game-field");
+        // Reader is right after start tag, so it's offset of content of <game-field>
+        int gameFieldOffset = reader.getLocation().getCharacterOffset();
 
-            return new LevelPack(levels, root.getAttribute("name"));
-        } catch (XPathExpressionException e) {
-            throw new RuntimeException(e);
-        }
+        int[] size = readGameField(reader, number, null);
+
+        reader.nextTag();
+        reader.require(XMLStreamConstants.END_ELEMENT, null, "level");
+
+        return new Level(number, completed, size[0], size[1],
+                new XMLGridSource(file, gameFieldOffset, size[0], size[1]));
     }
 
     /**
-     * This function enables all buttons of completed levels and enables first not-completed-level-button.
+     * Reads content of {@code <game-field>} and checks it: game field must be rectangular and must have exactly one
+     * start and one finish cell. Reader must be on start tag of {@code <game-field>}, after reading it's on its end
+     * tag. Both loading of pack and {@link XMLGridSource lazy loading of grid} read game field here, so they accept the
+     * same XML.
      *
-     * @param levels list with levels
-     * @return modified list with levels.
+     * @param reader reader of level pack
+     * @param number number of level, it's used in messages
+     * @param cells  array for {@link CellType#getCode() codes} of cells (column by column), or {@code null} if cells
+     *               are only counted
+     * @return {@code [width, height]} of game field.
+     * @throws XMLStreamException       if reader fails or document isn't well-formed.
+     * @throws IllegalArgumentException if some cell is unsupported, game field isn't rectangular, hasn't exactly one
+     *                                  start and one finish cell, or has more cells than array can contain.
      */
-    private static ArrayList<Level> enableNeededLevelButtons(ArrayList<Level> levels) {
-        Iterator<Level> iterator = levels.iterator();
-        boolean stopped = false;
-        while (iterator.hasNext() && !stopped) {
-            Level next = iterator.next();
-            next.getButtonRepresentation().setDisable(false);
-            stopped = !next.isCompleted();
+    static int[] readGameField(XMLStreamReader reader, String number, byte[] cells) throws XMLStreamException {
+        reader.require(XMLStreamConstants.START_ELEMENT, null, "game-field");
+
+        int levelWidth = 0;
+        int levelHeight = -1;
+        int cellsCount = 0;
+        int startsCount = 0;
+        int finishesCount = 0;
+
+        // Iterating columns
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            reader.require(XMLStreamConstants.START_ELEMENT, null, "column");
+            int columnHeight = 0;
+
+            // Iterating cells in column
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                CellType cellType = cellTypeFromXMLTag(reader.getLocalName());
+                if (cellType == CellType.START)
+                    startsCount++;
+                else if (cellType == CellType.FINISH)
+                    finishesCount++;
+
+                if (cells != null) {
+                    if (cellsCount == cells.length)
+                        throw new IllegalArgumentException("Level \"" + number + "\" has more than " + cells.length +
+                                " cells");
+                    cells[cellsCount] = cellType.getCode();
+                }
+                cellsCount++;
+                columnHeight++;
+
+                // Cell tags are empty, so it's end tag of cell
+                reader.nextTag();
+            }
+
+            if (levelHeight == -1)
+                levelHeight = columnHeight;
+            else if (levelHeight != columnHeight)
+                throw new IllegalArgumentException("Level \"" + number + "\" isn\'t rectangular: column " + levelWidth +
+                        " has " + columnHeight + " cells, but previous columns have " + levelHeight + " cells");
+            levelWidth++;
         }
+        reader.require(XMLStreamConstants.END_ELEMENT, null, "game-field");
 
-        return levels;
+        if (startsCount != 1 || finishesCount != 1)
+            throw new IllegalArgumentException("Level \"" + number + "\" must have one start and one finish cell, but " +
+                    "it has " + startsCount + " start and " + finishesCount + " finish cells");
+
+        return new int[]{levelWidth, levelHeight};
+    }
+
+    static CellType cellTypeFromXMLTag(String tagName) {
+        switch (tagName) {
+            case "wall":
+                return CellType.WALL;
+
+            case "empty":
+                return CellType.EMPTY;
+
+            case "start":
+                return CellType.START;
+
+            case "finish":
+                return CellType.FINISH;
+
+            case "background":
+                return CellType.BACKGROUND_SQUARE;
+
+            default:
+                throw new IllegalArgumentException("Unsupported cell tag <" + tagName + ">");
+        }
     }
 }
@@ -0,0 +1,75 @@
+package levels;
+
+import util.io.DirectoryResourceResolver;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Converts level packs between formats. Format of each file is chosen by its extension:
+ * <ul>
+ *     <li>{@code .xml} - XML, see {@link LevelPack#fromXML(String)};</li>
+ *     <li>{@code .clsf} - Compressed Level Store Format, see {@link CompressedLevelFormat};</li>
+ *     <li>any other - binary format, see {@link BinaryLevelPack}.</li>
+ * </ul>
+ *
+ * <pre><code>
+ * java -cp app levels.LevelPackConverter ../resources/levels/classic.xml classic.plpk
+ * java -cp app levels.LevelPackConverter classic.plpk classic.clsf
+ * </code></pre>
+ */
+public class LevelPackConverter {
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LevelPackConverter <input file> <output file>");
+            System.exit(1);
+        }
+
+        write(read(Paths.get(args[0])), Paths.get(args[1]));
+    }
+
+    /**
+     * Reads level pack in format, which is chosen by extension of file. Schema of XML level packs is taken from
+     * resources of application.
+     *
+     * @param path path to level pack
+     * @return read level pack.
+     * @throws IOException if file can't be read.
+     */
+    public static LevelPack read(Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+
+        if (fileName.endsWith(".xml")) {
+            Path schema = DirectoryResourceResolver.resourcesRootOf(LevelPackConverter.class)
+                    .resolve("levels/level-pack-schema.xsd");
+            return LevelPack.fromXML(path.toString(), schema.toString());
+        } else if (fileName.endsWith(".clsf"))
+            return CompressedLevelFormat.read(path);
+        else
+            return BinaryLevelPack.open(path).toLevelPack();
+    }
+
+    /**
+     * Writes level pack in format, which is chosen by extension of file.
+     *
+     * @param pack level pack to write
+     * @param path path to file, it's overwritten if exists
+     * @throws IOException if file can't be written.
+     */
+    public static void write(LevelPack pack, Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+
+        if (fileName.endsWith(".xml")) {
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                pack.writeTo(writer);
+            }
+        } else if (fileName.endsWith(".clsf"))
+            CompressedLevelFormat.write(pack, path);
+        else
+            BinaryLevelPack.write(pack, path);
+    }
+}
@@ -0,0 +1,97 @@
+package levels;
+
+import util.xml.XMLUtils;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads grid of one level from XML level pack. Level pack is validated when it's loaded (see
+ * {@link LevelPack#fromXML(String)}), and then only position of each {@code <game-field>} is remembered. Grid is read
+ * from this position by the same StAX code, which has checked it while loading (see
+ * {@link LevelPack#readGameField(XMLStreamReader, String, byte[])}), so comments, processing instructions and
+ * everything else, that is valid in pack, are valid here too. Other levels aren't read.
+ */
+class XMLGridSource implements GridSource {
+    /** Content of game field is read as document with this root, because its own start tag is before offset. */
+    private static final String GAME_FIELD_START_TAG = "<game-field>";
+    /**
+     * Byte order mark, which is saved at the beginning of file by some editors. Parser doesn't count it in offsets, but
+     * {@link InputStreamReader} returns it as character, so it's skipped before offset.
+     */
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final File file;
+    /**
+     * Offset (in characters, without byte order mark) of content of {@code <game-field>} tag, right after its start
+     * tag.
+     */
+    private final long offset;
+    private final int width;
+    private final int height;
+    /** Modification time of file, when it was indexed. Offsets are valid only for the same file. */
+    private final long lastModified;
+
+    XMLGridSource(File file, long offset, int width, int height) {
+        this.file = file;
+        this.offset = offset;
+        this.width = width;
+        this.height = height;
+        this.lastModified = file.lastModified();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if file was changed after it was loaded.
+     */
+    @Override
+    public LevelGrid loadGrid() {
+        if (file.lastModified() != lastModified)
+            throw new IllegalStateException("Level pack \"" + file + "\" was changed after loading");
+
+        try (BufferedReader fileReader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+                StandardCharsets.UTF_8))) {
+            fileReader.mark(1);
+            if (fileReader.read() != BYTE_ORDER_MARK)
+                fileReader.reset();
+
+            long skipped = 0;
+            while (skipped < offset) {
+                long count = fileReader.skip(offset - skipped);
+                if (count <= 0)
+                    throw new IllegalStateException("Level pack \"" + file + "\" is shorter than expected");
+                skipped += count;
+            }
+
+            // Parser stops at </game-field>, so the rest of file (end tags without start tags) is never parsed
+            PushbackReader gameField = new PushbackReader(fileReader, GAME_FIELD_START_TAG.length());
+            gameField.unread(GAME_FIELD_START_TAG.toCharArray());
+
+            XMLStreamReader reader = XMLUtils.newReader(gameField);
+            try {
+                reader.nextTag();
+                byte[] cells = new byte[width * height];
+                int[] size = LevelPack.readGameField(reader, "at offset " + offset, cells);
+                if (size[0] != width || size[1] != height)
+                    throw new IllegalStateException("Level pack \"" + file + "\" has grid " + size[0] + "x" + size[1] +
+                            " at offset " + offset + ", but " + width + "x" + height + " is expected");
+
+                return new LevelGrid(width, height, cells);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | IllegalArgumentException e) {
+            throw new IllegalStateException("Level pack \"" + file + "\" has invalid grid at offset " + offset, e);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
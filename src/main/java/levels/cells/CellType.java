@@ -28,5 +28,38 @@ public enum CellType {
      * {@link BackgroundSquare#draw(int, int, GraphicsContext, GamePlayController)} clears rectangle and doesn't draw
      * anything.
      */
-    BACKGROUND_SQUARE
+    BACKGROUND_SQUARE;
+
+    /** Cached result of {@link #values()}, because {@link #values()} creates new array on each call. */
+    private static final CellType[] VALUES = values();
+
+    /**
+     * Checks if pointer must visit cells of this type to complete level. These're {@link #EMPTY empty cells} and
+     * {@link #FINISH finish}.
+     *
+     * @return {@code true} if cells of this type must be visited.
+     */
+    public boolean mustBeVisited() {
+        return this == EMPTY || this == FINISH;
+    }
+
+    /**
+     * Returns compact code of cell type. It's used to store cells in {@link levels.LevelGrid}.
+     *
+     * @return code of cell type.
+     * @see #fromCode(byte)
+     */
+    public byte getCode() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * Returns cell type by its {@link #getCode() code}.
+     *
+     * @param code code of cell type
+     * @return cell type with specified code.
+     */
+    public static CellType fromCode(byte code) {
+        return VALUES[code];
+    }
 }
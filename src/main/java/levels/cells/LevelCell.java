@@ -4,15 +4,29 @@ import javafx.scene.canvas.GraphicsContext;
 import mvc.controllers.gameplay.GamePlayController;
 
 /**
- * Class for storing data about <b>one</b> cell in level.
+ * Class for drawing <b>one</b> cell in level. Cells don't store any state (it's stored in {@link levels.LevelGrid}),
+ * so there's only one instance of each cell class.
+ *
+ * @see #of(CellType)
  */
 public abstract class LevelCell {
-    private boolean visited = false;
-    public boolean isVisited() {
-        return visited;
-    }
-    public void setVisited(boolean visited) {
-        this.visited = visited;
+    /** Shared cells, index is {@link CellType#ordinal()}. */
+    private static final LevelCell[] CELLS = {
+            new WallCell(),
+            new EmptyCell(),
+            new StartCell(),
+            new FinishCell(),
+            new BackgroundSquare()
+    };
+
+    /**
+     * Returns shared cell for specified type.
+     *
+     * @param type type of cell
+     * @return shared cell instance.
+     */
+    public static LevelCell of(CellType type) {
+        return CELLS[type.ordinal()];
     }
 
     /**
@@ -27,7 +41,8 @@ public abstract class LevelCell {
      *
      * @param x          {@code x} position on {@link javafx.scene.canvas.Canvas}
      * @param y          {@code y} position on {@link javafx.scene.canvas.Canvas}
-     * @param graphics   {@link GraphicsContext} from {@link GamePlayController#graphics}
+     * @param graphics   {@link GraphicsContext} of field layer, where cell is drawn (start cell is drawn on upper layer,
+     *                   {@link GamePlayController#graphics})
      * @param controller {@link GamePlayController} that called method
      */
     public abstract void draw(int x, int y, GraphicsContext graphics, GamePlayController controller);
@@ -0,0 +1,259 @@
+package levels.game;
+
+import levels.LevelGrid;
+import levels.cells.CellType;
+import util.collections.IntStack;
+
+/**
+ * Rules of the game for one playing of level, without any drawing. Session knows, where pointer is, which cells are
+ * visited, path of pointer and history of moves, and it works only with coordinates of cells in {@link LevelGrid} (not
+ * with coordinates on canvas). So levels can be played without JavaFX - by tests, solvers and other tools, and
+ * {@code GamePlayController} only shows what session does.
+ *
+ * <p>Rules:</p>
+ * <ul>
+ *     <li>Pointer starts on start cell and moves to neighbour cells (see {@link #canApply(Move)}). It can't step on
+ *     walls, background squares and cells, which are already visited. Start cell isn't visited at the beginning, so it
+ *     can be entered again once.</li>
+ *     <li>Level is completed, when pointer is on finish cell and all {@link CellType#mustBeVisited() cells, which must
+ *     be visited}, are visited (see {@link #isCompleted()}). After that moves aren't accepted.</li>
+ *     <li>{@link #undo()} cancels the last move, {@link #redo()} repeats cancelled move. New move clears moves to
+ *     redo.</li>
+ * </ul>
+ *
+ * <p>Session changes "visited" flags of grid, so there mustn't be two sessions for one grid at the same time. Nothing
+ * is allocated by moves, undos and redos, so session can do millions of moves per second.</p>
+ */
+public class GameSession {
+    private final LevelGrid grid;
+    public LevelGrid getGrid() {
+        return grid;
+    }
+
+    /** Index of start cell in grid. */
+    private final int startCell;
+
+    /**
+     * Path of pointer: indexes of visited cells in {@link LevelGrid}, the first one is start cell, the last one is cell
+     * of pointer.
+     */
+    private final IntStack path = new IntStack();
+    /** {@link Move#ordinal() Ordinals} of done moves, the last one is cancelled by {@link #undo()}. */
+    private final IntStack undoMoves = new IntStack();
+    /** {@link Move#ordinal() Ordinals} of cancelled moves, the last one is repeated by {@link #redo()}. */
+    private final IntStack redoMoves = new IntStack();
+
+    /**
+     * Count of cells, which {@link CellType#mustBeVisited() must be visited}, but aren't visited yet. It changes with
+     * each move and undo, so level completion is checked without iterating grid.
+     */
+    private int cellsLeftToVisit;
+    public int getCellsLeftToVisit() {
+        return cellsLeftToVisit;
+    }
+
+    /**
+     * Starts new session. "Visited" flags of grid are reset.
+     *
+     * @param grid grid of level
+     * @throws IllegalArgumentException if grid hasn't start cell.
+     */
+    public GameSession(LevelGrid grid) {
+        this.grid = grid;
+        this.startCell = findStartCell(grid);
+        restart();
+    }
+
+    private static int findStartCell(LevelGrid grid) {
+        for (int i = 0; i < grid.getCellsCount(); i++) {
+            if (grid.getCellType(i) == CellType.START)
+                return i;
+        }
+
+        throw new IllegalArgumentException("Grid has no start cell");
+    }
+
+    /**
+     * Returns pointer to start cell and clears history of moves.
+     */
+    public void restart() {
+        grid.resetVisited();
+        cellsLeftToVisit = grid.getCellsToVisitCount();
+        path.clear();
+        path.push(startCell);
+        undoMoves.clear();
+        redoMoves.clear();
+    }
+
+    //////////////////////////////////// Moves ////////////////////////////////////
+    /**
+     * Checks, if pointer can do move: goal cell is inside of grid, it isn't wall or background square and it isn't
+     * visited yet, and level isn't completed.
+     *
+     * @param move move to check
+     * @return {@code true} if move can be {@link #apply(Move) applied}.
+     */
+    public boolean canApply(Move move) {
+        int x = getX() + move.getDeltaX();
+        int y = getY() + move.getDeltaY();
+        if (!grid.contains(x, y) || isCompleted())
+            return false;
+
+        CellType goalCellType = grid.getCellType(x, y);
+        return goalCellType != CellType.WALL && goalCellType != CellType.BACKGROUND_SQUARE && !grid.isVisited(x, y);
+    }
+
+    /**
+     * Moves pointer, if it's possible. Moves to redo are cleared.
+     *
+     * @param move move to do
+     * @return {@code true} if pointer has moved, {@code false} if move isn't possible (see {@link #canApply(Move)}).
+     */
+    public boolean apply(Move move) {
+        if (!step(move))
+            return false;
+
+        redoMoves.clear();
+        return true;
+    }
+
+    /**
+     * Cancels the last move: pointer returns to previous cell, and cell, which it leaves, isn't visited anymore.
+     *
+     * @return move, which pointer has done to return (it's {@link Move#opposite() opposite} to cancelled move), or
+     * {@code null} if there's nothing to undo.
+     */
+    public Move undo() {
+        if (undoMoves.isEmpty())
+            return null;
+
+        Move move = Move.fromOrdinal(undoMoves.pop());
+        unvisitCell(path.pop());
+        redoMoves.push(move.ordinal());
+
+        return move.opposite();
+    }
+
+    /**
+     * Repeats the last cancelled move.
+     *
+     * @return repeated move, or {@code null} if there's nothing to redo or move isn't possible anymore.
+     */
+    public Move redo() {
+        if (redoMoves.isEmpty())
+            return null;
+
+        Move move = Move.fromOrdinal(redoMoves.last());
+        if (!step(move))
+            return null;
+
+        redoMoves.pop();
+        return move;
+    }
+
+    private boolean step(Move move) {
+        if (!canApply(move))
+            return false;
+
+        int cell = grid.indexOf(getX() + move.getDeltaX(), getY() + move.getDeltaY());
+        path.push(cell);
+        visitCell(cell);
+        undoMoves.push(move.ordinal());
+        return true;
+    }
+
+    private void visitCell(int cell) {
+        int x = grid.xOf(cell);
+        int y = grid.yOf(cell);
+
+        if (!grid.isVisited(x, y)) {
+            grid.setVisited(x, y, true);
+            if (grid.getCellType(cell).mustBeVisited())
+                cellsLeftToVisit--;
+        }
+    }
+
+    private void unvisitCell(int cell) {
+        int x = grid.xOf(cell);
+        int y = grid.yOf(cell);
+
+        if (grid.isVisited(x, y)) {
+            grid.setVisited(x, y, false);
+            if (grid.getCellType(cell).mustBeVisited())
+                cellsLeftToVisit++;
+        }
+    }
+
+    //////////////////////////////////// State ////////////////////////////////////
+    /**
+     * Checks if level is completed: pointer is on finish cell, and all cells, which must be visited, are visited.
+     *
+     * @return {@code true} if level is completed.
+     */
+    public boolean isCompleted() {
+        return cellsLeftToVisit == 0 && grid.getCellType(path.last()) == CellType.FINISH;
+    }
+
+    public boolean canUndo() {
+        return !undoMoves.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoMoves.isEmpty();
+    }
+
+    /**
+     * Returns column of pointer.
+     *
+     * @return {@code x} coordinate of cell, where pointer is.
+     */
+    public int getX() {
+        return grid.xOf(path.last());
+    }
+
+    /**
+     * Returns row of pointer.
+     *
+     * @return {@code y} coordinate of cell, where pointer is.
+     */
+    public int getY() {
+        return grid.yOf(path.last());
+    }
+
+    public int getStartX() {
+        return grid.xOf(startCell);
+    }
+
+    public int getStartY() {
+        return grid.yOf(startCell);
+    }
+
+    /**
+     * Returns count of moves in path (cancelled moves aren't counted).
+     *
+     * @return count of moves from start cell to pointer.
+     */
+    public int getMovesCount() {
+        return path.length() - 1;
+    }
+
+    /**
+     * Returns count of cells in path, including start cell and cell of pointer.
+     *
+     * @return {@link #getMovesCount()} {@code + 1}.
+     */
+    public int getPathLength() {
+        return path.length();
+    }
+
+    /**
+     * Returns cell of path.
+     *
+     * @param index index of cell in path, start cell has index {@code 0}
+     * @return {@link LevelGrid#indexOf(int, int) index of cell in grid}.
+     * @throws IndexOutOfBoundsException if index isn't in range {@code [0; getPathLength())}.
+     */
+    public int getPathCell(int index) {
+        return path.get(index);
+    }
+}
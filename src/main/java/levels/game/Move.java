@@ -0,0 +1,51 @@
+package levels.game;
+
+/**
+ * Move of pointer to neighbour cell.
+ */
+public enum Move {
+    UP(0, -1),
+    LEFT(-1, 0),
+    DOWN(0, 1),
+    RIGHT(1, 0);
+
+    /** Cached result of {@link #values()}, because {@link #values()} creates new array on each call. */
+    private static final Move[] VALUES = values();
+
+    /** Change of {@code x} coordinate (column) of cell after this move. */
+    private final int deltaX;
+    public int getDeltaX() {
+        return deltaX;
+    }
+
+    /** Change of {@code y} coordinate (row) of cell after this move. */
+    private final int deltaY;
+    public int getDeltaY() {
+        return deltaY;
+    }
+
+    Move(int deltaX, int deltaY) {
+        this.deltaX = deltaX;
+        this.deltaY = deltaY;
+    }
+
+    /**
+     * Returns move in opposite direction, it cancels this move.
+     *
+     * @return opposite move.
+     */
+    public Move opposite() {
+        // Opposite moves are two positions apart in order of declaration
+        return VALUES[(ordinal() + 2) % VALUES.length];
+    }
+
+    /**
+     * Returns move by its {@link #ordinal() ordinal}, without creating array like {@link #values()}.
+     *
+     * @param ordinal ordinal of move
+     * @return move with specified ordinal.
+     */
+    public static Move fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,121 @@
+package levels.solver;
+
+import static levels.solver.GridGraph.DIRECTIONS;
+
+/**
+ * Depth-first search of path, that continues path of {@link SearchState}. Search is iterative (not recursive), so big
+ * levels can't cause {@link StackOverflowError}. Also search can be paused (see {@link #advance(long)}) and can give
+ * untried branches to other searches (see {@link #splitOff()}), that's how {@link ParallelLevelSolver} works.
+ */
+class DepthFirstSearch {
+    private final SearchState state;
+    /** Length of path, from which search has started. Search never goes back over it. */
+    private final int baseLength;
+    /** Candidates for each path length, {@link GridGraph#DIRECTIONS} items per length. */
+    private final int[] candidates;
+    private final int[] candidatesCount;
+    private final int[] nextCandidate;
+    /**
+     * The shortest path length, which may still have untried candidates. It's used by {@link #splitOff()} to avoid
+     * scanning from {@link #baseLength} each time.
+     */
+    private int splitLength;
+    private boolean finished;
+
+    /**
+     * Creates search.
+     *
+     * @param state state to continue. If search succeeds, state contains found path
+     */
+    DepthFirstSearch(SearchState state) {
+        final int maxLength = state.getGraph().walkableCount;
+
+        this.state = state;
+        this.baseLength = state.length();
+        this.candidates = new int[(maxLength + 1) * DIRECTIONS];
+        this.candidatesCount = new int[maxLength + 1];
+        this.nextCandidate = new int[maxLength + 1];
+        this.splitLength = baseLength;
+
+        candidatesCount[baseLength] = state.fillCandidates(candidates, baseLength * DIRECTIONS);
+        nextCandidate[baseLength] = 0;
+    }
+
+    SearchState getState() {
+        return state;
+    }
+
+    boolean isSolved() {
+        return state.isSolved();
+    }
+
+    /**
+     * Continues search.
+     *
+     * @param maxSteps max count of steps (moves of head forward or back) to do
+     * @return {@code true} if search is finished (path is found or all branches are tried), {@code false} if it's
+     * paused because of steps limit.
+     */
+    boolean advance(long maxSteps) {
+        for (long step = 0; step < maxSteps && !finished; step++) {
+            if (state.isSolved()) {
+                finished = true;
+                break;
+            }
+
+            int length = state.length();
+            boolean stepped = false;
+
+            while (nextCandidate[length] < candidatesCount[length]) {
+                int cell = candidates[length * DIRECTIONS + nextCandidate[length]++];
+
+                state.push(cell);
+                if (state.isHopeless()) {
+                    state.pop();
+                    continue;
+                }
+
+                candidatesCount[length + 1] = state.fillCandidates(candidates, (length + 1) * DIRECTIONS);
+                nextCandidate[length + 1] = 0;
+                stepped = true;
+                break;
+            }
+
+            if (!stepped) {
+                if (length == baseLength)
+                    finished = true;
+                else
+                    state.pop();
+            }
+        }
+
+        return finished;
+    }
+
+    /**
+     * Takes one untried branch, which is the closest to start of path (such branches are usually the biggest ones).
+     * This search won't try given branch anymore.
+     *
+     * @return new state, which path ends with first cell of branch, or {@code null} if there're no untried branches.
+     */
+    SearchState splitOff() {
+        if (finished)
+            return null;
+
+        // Candidates of current head aren't given away, search will try them on next step
+        for (; splitLength < state.length(); splitLength++) {
+            while (nextCandidate[splitLength] < candidatesCount[splitLength]) {
+                int cell = candidates[splitLength * DIRECTIONS + nextCandidate[splitLength]++];
+
+                SearchState branch = new SearchState(state);
+                while (branch.length() > splitLength)
+                    branch.pop();
+                branch.push(cell);
+                if (!branch.isHopeless())
+                    return branch;
+            }
+        }
+
+        return null;
+    }
+}
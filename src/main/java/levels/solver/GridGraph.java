@@ -0,0 +1,158 @@
+package levels.solver;
+
+import levels.LevelGrid;
+import levels.cells.CellType;
+import levels.game.Move;
+
+/**
+ * Graph of cells, on which pointer can step (empty cells, start and finish). It's built once per level and isn't
+ * changed by search, so it can be shared between threads.
+ *
+ * <p>Cells are identified by their {@link LevelGrid#indexOf(int, int) indexes in grid}. Neighbours of each cell are
+ * stored in one flat array, four items per cell, in order of {@link Move#values()}.</p>
+ */
+class GridGraph {
+    /** Cached result of {@link Move#values()}, direction {@code d} of {@link #neighbours} is {@code MOVES[d]}. */
+    static final Move[] MOVES = Move.values();
+    static final int DIRECTIONS = MOVES.length;
+    /** Value in {@link #neighbours}, that means "there's no cell to step on". */
+    static final int NO_CELL = -1;
+
+    final LevelGrid grid;
+    final int cellsCount;
+    /** Count of cells, which must be in path: all empty cells, start and finish. */
+    final int walkableCount;
+    final int start;
+    final int finish;
+
+    /** Neighbour of cell {@code c} in direction {@code d} is {@code neighbours[c * DIRECTIONS + d]}. */
+    final int[] neighbours;
+    final boolean[] walkable;
+    /**
+     * Colour of cell if grid is painted like chess board. Each move changes colour of cell, so it's used in parity
+     * checks.
+     */
+    final byte[] colour;
+    /**
+     * Eight cells around each cell, clockwise, starting from cell above. It's used to find out, if stepping on cell can
+     * cut free cells to several parts. Cells outside of grid are {@link #NO_CELL}.
+     */
+    final int[] ring;
+
+    /**
+     * Builds graph of level's grid.
+     *
+     * @param grid source grid
+     * @throws IllegalArgumentException if there's not exactly one start and one finish in grid.
+     */
+    GridGraph(LevelGrid grid) {
+        this.grid = grid;
+        this.cellsCount = grid.getCellsCount();
+        this.walkable = new boolean[cellsCount];
+        this.colour = new byte[cellsCount];
+
+        int start = NO_CELL;
+        int finish = NO_CELL;
+        int walkableCount = 0;
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                int cell = grid.indexOf(x, y);
+                CellType type = grid.getCellType(cell);
+                colour[cell] = (byte) ((x + y) & 1);
+
+                if (type == CellType.START) {
+                    if (start != NO_CELL)
+                        throw new IllegalArgumentException("Level has more than one start cell");
+                    start = cell;
+                } else if (type == CellType.FINISH) {
+                    if (finish != NO_CELL)
+                        throw new IllegalArgumentException("Level has more than one finish cell");
+                    finish = cell;
+                }
+
+                if (type == CellType.EMPTY || type == CellType.START || type == CellType.FINISH) {
+                    walkable[cell] = true;
+                    walkableCount++;
+                }
+            }
+        }
+        if (start == NO_CELL)
+            throw new IllegalArgumentException("Level hasn\'t start cell");
+        if (finish == NO_CELL)
+            throw new IllegalArgumentException("Level hasn\'t finish cell");
+
+        this.start = start;
+        this.finish = finish;
+        this.walkableCount = walkableCount;
+        this.neighbours = buildNeighbours();
+        this.ring = buildRing();
+    }
+
+    private int[] buildNeighbours() {
+        int[] neighbours = new int[cellsCount * DIRECTIONS];
+
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                int cell = grid.indexOf(x, y);
+
+                for (int d = 0; d < DIRECTIONS; d++) {
+                    int neighbourX = x + MOVES[d].getDeltaX();
+                    int neighbourY = y + MOVES[d].getDeltaY();
+
+                    if (walkable[cell] && grid.contains(neighbourX, neighbourY) &&
+                            walkable[grid.indexOf(neighbourX, neighbourY)])
+                        neighbours[cell * DIRECTIONS + d] = grid.indexOf(neighbourX, neighbourY);
+                    else
+                        neighbours[cell * DIRECTIONS + d] = NO_CELL;
+                }
+            }
+        }
+
+        return neighbours;
+    }
+
+    private int[] buildRing() {
+        final int[] ringDeltaX = {0, 1, 1, 1, 0, -1, -1, -1};
+        final int[] ringDeltaY = {-1, -1, 0, 1, 1, 1, 0, -1};
+        int[] ring = new int[cellsCount * ringDeltaX.length];
+
+        for (int x = 0; x < grid.getWidth(); x++) {
+            for (int y = 0; y < grid.getHeight(); y++) {
+                int cell = grid.indexOf(x, y);
+
+                for (int i = 0; i < ringDeltaX.length; i++) {
+                    int ringX = x + ringDeltaX[i];
+                    int ringY = y + ringDeltaY[i];
+
+                    if (grid.contains(ringX, ringY) && walkable[grid.indexOf(ringX, ringY)])
+                        ring[cell * ringDeltaX.length + i] = grid.indexOf(ringX, ringY);
+                    else
+                        ring[cell * ringDeltaX.length + i] = NO_CELL;
+                }
+            }
+        }
+
+        return ring;
+    }
+
+    int neighbour(int cell, int direction) {
+        return neighbours[cell * DIRECTIONS + direction];
+    }
+
+    /**
+     * Finds move that leads from one cell to another.
+     *
+     * @param from source cell
+     * @param to   destination cell, it must be neighbour of source cell
+     * @return move from source cell to destination cell.
+     * @throws IllegalArgumentException if cells aren't neighbours.
+     */
+    Move moveBetween(int from, int to) {
+        for (int d = 0; d < DIRECTIONS; d++) {
+            if (neighbour(from, d) == to)
+                return MOVES[d];
+        }
+
+        throw new IllegalArgumentException("Cells " + from + " and " + to + " aren\'t neighbours");
+    }
+}
@@ -0,0 +1,46 @@
+package levels.solver;
+
+import levels.Level;
+import levels.game.Move;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Solver for levels. It searches path, that starts on start cell, visits all empty cells (each one only once) and ends on
+ * finish cell - in other words, Hamiltonian path from start to finish. Search is depth-first, with pruning described in
+ * {@link SearchState}. The same search in several threads is done by {@link ParallelLevelSolver}.
+ *
+ * <p>Solver doesn't change level and doesn't need JavaFX, so it can be used to check level packs.</p>
+ *
+ * <pre><code>
+ * Optional&lt;List&lt;Move&gt;&gt; solution = new LevelSolver(level).solve();
+ * </code></pre>
+ */
+public class LevelSolver {
+    private final GridGraph graph;
+
+    /**
+     * Creates solver for level.
+     *
+     * @param level level to solve
+     * @throws IllegalArgumentException if level hasn't exactly one start and one finish cell.
+     */
+    public LevelSolver(Level level) {
+        this.graph = new GridGraph(level.getGrid());
+    }
+
+    /**
+     * Searches solution of level.
+     *
+     * @return {@link Optional} with moves from start to finish if level can be solved, otherwise - {@link Optional#EMPTY}.
+     */
+    public Optional<List<Move>> solve() {
+        SearchState state = new SearchState(graph);
+
+        if (!state.isHopelessFromStart() && new DepthFirstSearch(state).advance(Long.MAX_VALUE) && state.isSolved())
+            return Optional.of(state.toMoves());
+        else
+            return Optional.empty();
+    }
+}
@@ -0,0 +1,125 @@
+package levels.solver;
+
+import levels.Level;
+import levels.game.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Parallel version of {@link LevelSolver}. Search tree is split between threads of {@link ForkJoinPool}: each task runs
+ * {@link DepthFirstSearch}, and when there're not enough queued tasks for idle threads, it gives them its untried
+ * branches (the closest to start of path). Idle threads steal these tasks, so all threads are busy until search ends.
+ *
+ * <p>All tasks stop as soon as one of them finds path. Order of search differs from {@link LevelSolver}, so for
+ * solvable level the found path can differ too. Scaling with count of threads is measured by
+ * {@code SolverBenchmark}; on one core threads only change order of search, they don't make it faster.</p>
+ *
+ * <pre><code>
+ * Optional&lt;List&lt;Move&gt;&gt; solution = new ParallelLevelSolver(level, 16).solve();
+ * </code></pre>
+ */
+public class ParallelLevelSolver {
+    /** Count of search steps between checks, if path is already found and if other threads need work. */
+    private static final int STEPS_BETWEEN_CHECKS = 4096;
+    /** Task gives away branches, while there're less queued tasks than this value. */
+    private static final int MIN_QUEUED_TASKS = 2;
+
+    private final GridGraph graph;
+    private final int parallelism;
+
+    /**
+     * Creates solver, which uses all available processors.
+     *
+     * @param level level to solve
+     * @throws IllegalArgumentException if level hasn't exactly one start and one finish cell.
+     */
+    public ParallelLevelSolver(Level level) {
+        this(level, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates solver.
+     *
+     * @param level       level to solve
+     * @param parallelism count of threads for search
+     * @throws IllegalArgumentException if level hasn't exactly one start and one finish cell, or if parallelism is less
+     *                                  than {@code 1}.
+     */
+    public ParallelLevelSolver(Level level, int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Invalid value of argument \"parallelism\": " + parallelism);
+
+        this.graph = new GridGraph(level.getGrid());
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Searches solution of level. Threads are created for each call and stopped before return.
+     *
+     * @return {@link Optional} with moves from start to finish if level can be solved, otherwise - {@link Optional#EMPTY}.
+     */
+    public Optional<List<Move>> solve() {
+        SearchState state = new SearchState(graph);
+        if (state.isHopelessFromStart())
+            return Optional.empty();
+
+        AtomicReference<List<Move>> solution = new AtomicReference<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SearchTask(state, solution));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return Optional.ofNullable(solution.get());
+    }
+
+    /**
+     * Task, that searches path in one part of search tree.
+     */
+    private static class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SearchState state;
+        /** Found path, common for all tasks. Tasks stop when it isn't {@code null}. */
+        private final AtomicReference<List<Move>> solution;
+
+        SearchTask(SearchState state, AtomicReference<List<Move>> solution) {
+            this.state = state;
+            this.solution = solution;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void compute() {
+            DepthFirstSearch search = new DepthFirstSearch(state);
+            List<SearchTask> forkedTasks = new ArrayList<>(0);
+
+            while (solution.get() == null && !search.advance(STEPS_BETWEEN_CHECKS)) {
+                while (getSurplusQueuedTaskCount() < MIN_QUEUED_TASKS) {
+                    SearchState branch = search.splitOff();
+                    if (branch == null)
+                        break;
+
+                    SearchTask task = new SearchTask(branch, solution);
+                    task.fork();
+                    forkedTasks.add(task);
+                }
+            }
+
+            if (search.isSolved())
+                solution.compareAndSet(null, state.toMoves());
+
+            // Forked tasks see found path and stop at once, or they're done by this thread if nobody has stolen them
+            for (SearchTask task : forkedTasks)
+                task.join();
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package levels.solver;
+
+import levels.game.Move;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static levels.solver.GridGraph.DIRECTIONS;
+import static levels.solver.GridGraph.NO_CELL;
+
+/**
+ * Mutable state of path search: visited cells and current path. Besides that, state knows how to check, if current path
+ * can't be finished (see {@link #isHopeless()}). There're such checks:
+ *
+ * <ol>
+ *     <li><b>Dead ends.</b> Each free cell except finish must have at least two free neighbours (head of path is
+ *     counted as free), finish must have at least one. Only neighbours of previous head lose free neighbour on each
+ *     step, so this check costs {@code O(1)}.</li>
+ *     <li><b>Parity.</b> Grid is painted like chess board, and each move changes colour of cell. So count of free cells
+ *     of each colour and colour of finish are known for path of given length.</li>
+ *     <li><b>Connectivity.</b> All free cells must be connected without finish (path can't go through finish),
+ *     otherwise path can't visit all of them. Free cells are counted with BFS, but only if head could cut them into
+ *     several parts (if there's more than one group of free cells around head).</li>
+ * </ol>
+ *
+ * <p>Also state finds forced moves: if free neighbour of head has only one more free neighbour, it must be entered
+ * from head right now, otherwise it becomes dead end (see {@link #fillCandidates(int[], int)}).</p>
+ */
+class SearchState {
+    private final GridGraph graph;
+    private final boolean[] visited;
+    /** Cells of current path, first one is start and last one is head. */
+    private final int[] path;
+    private int length;
+    /** Count of free (not visited) cells of each {@link GridGraph#colour colour}. */
+    private final int[] remaining = new int[2];
+
+    /** Queue for BFS in {@link #areFreeCellsConnected(int)}. */
+    private final int[] queue;
+    /** Marks of cells reached by BFS. Cell is reached in current BFS if its mark equals {@link #bfsMark}. */
+    private final int[] bfsMarks;
+    private int bfsMark;
+
+    /**
+     * Creates state with path, that consists only of start cell.
+     *
+     * @param graph graph of level
+     */
+    SearchState(GridGraph graph) {
+        this.graph = graph;
+        this.visited = new boolean[graph.cellsCount];
+        this.path = new int[graph.walkableCount];
+        this.queue = new int[graph.walkableCount];
+        this.bfsMarks = new int[graph.cellsCount];
+
+        for (int cell = 0; cell < graph.cellsCount; cell++) {
+            if (graph.walkable[cell] && cell != graph.start)
+                remaining[graph.colour[cell]]++;
+        }
+        visited[graph.start] = true;
+        path[0] = graph.start;
+        length = 1;
+    }
+
+    /**
+     * Creates copy of other state. It's used to give part of search to other thread.
+     *
+     * @param source state to copy
+     */
+    SearchState(SearchState source) {
+        this.graph = source.graph;
+        this.visited = source.visited.clone();
+        this.path = source.path.clone();
+        this.length = source.length;
+        this.remaining[0] = source.remaining[0];
+        this.remaining[1] = source.remaining[1];
+        this.queue = new int[source.queue.length];
+        this.bfsMarks = new int[source.bfsMarks.length];
+    }
+
+    GridGraph getGraph() {
+        return graph;
+    }
+
+    int length() {
+        return length;
+    }
+
+    int head() {
+        return path[length - 1];
+    }
+
+    int remainingCount() {
+        return remaining[0] + remaining[1];
+    }
+
+    boolean isSolved() {
+        return remainingCount() == 0 && head() == graph.finish;
+    }
+
+    boolean canStepOn(int cell) {
+        return cell != NO_CELL && !visited[cell];
+    }
+
+    /**
+     * Moves head to specified cell.
+     *
+     * @param cell free neighbour of head
+     */
+    void push(int cell) {
+        visited[cell] = true;
+        remaining[graph.colour[cell]]--;
+        path[length++] = cell;
+    }
+
+    /**
+     * Moves head back to previous cell.
+     */
+    void pop() {
+        int cell = path[--length];
+        visited[cell] = false;
+        remaining[graph.colour[cell]]++;
+    }
+
+    /**
+     * Checks if current path can't be finished. It's called after each {@link #push(int)}, and it checks only things,
+     * that could be changed by last step. To check path, that consists only of start cell, use
+     * {@link #isHopelessFromStart()}.
+     *
+     * @return {@code true} if path can't be finished, {@code false} if it <b>may</b> be finished.
+     */
+    boolean isHopeless() {
+        int head = head();
+        if (head == graph.finish)
+            return remainingCount() != 0;
+
+        // Neighbours of previous head have lost one free neighbour
+        int previous = path[length - 2];
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int neighbour = graph.neighbour(previous, d);
+            if (canStepOn(neighbour) && isDeadEnd(neighbour, head))
+                return true;
+        }
+
+        return !isParityValid(head) || (mayCutFreeCells(head) && !areFreeCellsConnected(head));
+    }
+
+    /**
+     * Does all checks of {@link #isHopeless()} for all cells. It's used before search, when path consists only of start
+     * cell.
+     *
+     * @return {@code true} if level can't be solved, {@code false} if it <b>may</b> be solved.
+     */
+    boolean isHopelessFromStart() {
+        int head = head();
+
+        for (int cell = 0; cell < graph.cellsCount; cell++) {
+            if (canStepOn(cell) && graph.walkable[cell] && isDeadEnd(cell, head))
+                return true;
+        }
+
+        return !isParityValid(head) || !areFreeCellsConnected(head);
+    }
+
+    /**
+     * Finds cells, on which head can step now, and writes them to buffer. If there's forced move, only that cell is
+     * written. Cells with less free neighbours go first (it's Warnsdorff's rule), because they're the first candidates
+     * to become dead ends.
+     *
+     * @param buffer buffer for cells
+     * @param offset index in buffer, from which cells are written. There must be at least
+     *               {@link GridGraph#DIRECTIONS} items after it
+     * @return count of written cells, {@code 0} if there's no way to continue path.
+     */
+    int fillCandidates(int[] buffer, int offset) {
+        int head = head();
+        int count = 0;
+        int forced = NO_CELL;
+
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int neighbour = graph.neighbour(head, d);
+            if (!canStepOn(neighbour))
+                continue;
+
+            int degree = freeDegree(neighbour, head);
+            if (neighbour != graph.finish) {
+                // Head is this cell's only free neighbour, so path can't leave it
+                if (degree == 1)
+                    return 0;
+
+                // This cell has head and one more free neighbour. If head goes elsewhere, only one free side will be
+                // left, so cell must be entered now (and two such cells can't be entered both)
+                if (degree == 2) {
+                    if (forced != NO_CELL)
+                        return 0;
+                    forced = neighbour;
+                }
+            }
+
+            // Insertion sort by count of free neighbours
+            int i = count++;
+            while (i > 0 && freeDegree(buffer[offset + i - 1], head) > degree) {
+                buffer[offset + i] = buffer[offset + i - 1];
+                i--;
+            }
+            buffer[offset + i] = neighbour;
+        }
+
+        if (forced != NO_CELL) {
+            buffer[offset] = forced;
+            return 1;
+        }
+        return count;
+    }
+
+    /**
+     * Converts current path to moves.
+     *
+     * @return list of moves from start to head.
+     */
+    List<Move> toMoves() {
+        List<Move> moves = new ArrayList<>(length - 1);
+        for (int i = 1; i < length; i++)
+            moves.add(graph.moveBetween(path[i - 1], path[i]));
+        return moves;
+    }
+
+    /**
+     * Counts free neighbours of cell. Head is counted as free neighbour.
+     */
+    private int freeDegree(int cell, int head) {
+        int degree = 0;
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int neighbour = graph.neighbour(cell, d);
+            if (neighbour == head || canStepOn(neighbour))
+                degree++;
+        }
+        return degree;
+    }
+
+    private boolean isDeadEnd(int cell, int head) {
+        return freeDegree(cell, head) < (cell == graph.finish ? 1 : 2);
+    }
+
+    /**
+     * Checks colours of free cells. Path from head to finish visits cells of two colours one by one, so there must be
+     * {@code k / 2} free cells of head's colour ({@code k} is count of free cells), and finish must have head's colour
+     * only if {@code k} is even.
+     */
+    private boolean isParityValid(int head) {
+        int count = remainingCount();
+        byte headColour = graph.colour[head];
+
+        return remaining[headColour] == count / 2 &&
+                (graph.colour[graph.finish] == headColour) == (count % 2 == 0);
+    }
+
+    /**
+     * Checks if path can go through cell (not only end on it). Finish is the end of path, so it isn't passable.
+     */
+    private boolean canPassThrough(int cell) {
+        return canStepOn(cell) && cell != graph.finish;
+    }
+
+    /**
+     * Checks free cells around head. If they form more than one group, stepping on head could cut free cells into
+     * several parts.
+     */
+    private boolean mayCutFreeCells(int head) {
+        final int ringSize = 8;
+        int groups = 0;
+        boolean previousFree = canPassThrough(graph.ring[head * ringSize + ringSize - 1]);
+
+        for (int i = 0; i < ringSize; i++) {
+            boolean free = canPassThrough(graph.ring[head * ringSize + i]);
+            if (free && !previousFree)
+                groups++;
+            previousFree = free;
+        }
+
+        return groups > 1;
+    }
+
+    /**
+     * Checks if all free cells can be reached from head. Path can't go through finish, so free cells are connected only
+     * if they're connected without finish.
+     */
+    private boolean areFreeCellsConnected(int head) {
+        // Finish isn't visited yet, so it isn't counted
+        int count = remainingCount() - 1;
+        if (count <= 0)
+            return true;
+
+        bfsMark++;
+        int queueStart = 0;
+        int queueEnd = 0;
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int neighbour = graph.neighbour(head, d);
+            if (canPassThrough(neighbour)) {
+                bfsMarks[neighbour] = bfsMark;
+                queue[queueEnd++] = neighbour;
+                // Only one group of free cells can be entered from head
+                break;
+            }
+        }
+
+        while (queueStart < queueEnd) {
+            int cell = queue[queueStart++];
+
+            for (int d = 0; d < DIRECTIONS; d++) {
+                int neighbour = graph.neighbour(cell, d);
+                if (canPassThrough(neighbour) && bfsMarks[neighbour] != bfsMark) {
+                    bfsMarks[neighbour] = bfsMark;
+                    queue[queueEnd++] = neighbour;
+                }
+            }
+        }
+
+        return queueEnd == count;
+    }
+}
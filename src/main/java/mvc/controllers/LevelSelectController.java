@@ -2,9 +2,13 @@ package mvc.controllers;
 
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.Region;
 import javafx.scene.text.Font;
 import levels.Level;
 import levels.LevelPack;
@@ -12,15 +16,28 @@ import mvc.help.ExternalStorage;
 import mvc.help.FXController;
 import start.Main;
 
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for level select menu.
  */
 public class LevelSelectController extends FXController {
+    private static final int LEVEL_BUTTON_MARGIN = 20;
+    private static final int LEVEL_COMPLETION_BAR_SPACING = 2;
+    private static final int LEVEL_BUTTON_SIZE = 60;
+
     @FXML
     private BorderPane levelsPaneWrapper;
 
+    /**
+     * Buttons of levels, which were already shown. Buttons are made only when level select menu is opened for the first
+     * time with pack of level, and then they're reused (only their state is updated).
+     */
+    private final Map<Level, LevelButton> levelButtons = new IdentityHashMap<>();
+
     /**
      * {@inheritDoc}
      */
@@ -36,13 +53,20 @@ public class LevelSelectController extends FXController {
         final LevelPack selectedCampaign = ExternalStorage.getInstance().selectedCampaign;
 
         if (!selectedCampaign.isEmpty()) {
+            List<Button> buttons = new ArrayList<>(selectedCampaign.levelsCount());
+            for (int i = 0; i < selectedCampaign.levelsCount(); i++) {
+                Level level = selectedCampaign.getLevel(i);
+                LevelButton levelButton = levelButtons.computeIfAbsent(level, LevelButton::new);
+
+                // Level could be completed since last time
+                levelButton.update(selectedCampaign.isLevelUnlocked(i));
+                buttons.add(levelButton.button);
+            }
+
             FlowPane levelsPane = new FlowPane();
-            levelsPane.getChildren().addAll(selectedCampaign.stream()
-                    // Transforming Level objects to buttons
-                    .map(Level::getButtonRepresentation)
-                    .collect(Collectors.toList()));
+            levelsPane.getChildren().addAll(buttons);
 
-            levelsPane.setPadding(new Insets(Level.LEVEL_BUTTON_MARGIN));
+            levelsPane.setPadding(new Insets(LEVEL_BUTTON_MARGIN));
             levelsPaneWrapper.setCenter(levelsPane);
 
         } else {
@@ -57,10 +81,67 @@ public class LevelSelectController extends FXController {
      */
     @Override
     public void shutdown() {
-
+        // Buttons mustn't stay in old pane, they're added to the new one on next wake up
+        levelsPaneWrapper.setCenter(null);
     }
 
     public void backAction() {
         Main.changeScene("campaign-select.fxml", " - " + getLocaleStr("campaign.mode.select.header"));
     }
+
+    /**
+     * Button representation of level, is used when selecting level.
+     */
+    private static class LevelButton {
+        private final Level level;
+        private final Button button;
+        /** If level is completed - this bar is filled on 100%, otherwise - on 0%. */
+        private final ProgressBar levelCompletionBar;
+
+        LevelButton(Level level) {
+            this.level = level;
+            this.levelCompletionBar = makeLevelCompletionBar();
+            this.button = makeLevelButton();
+
+            button.setOnMouseClicked(event -> {
+                ExternalStorage.getInstance().currentLevel = level;
+                Main.changeScene("game-field.fxml", " - " + Main.getLocaleStr("header.game-play"));
+            });
+        }
+
+        void update(boolean unlocked) {
+            button.setDisable(!unlocked);
+            levelCompletionBar.setProgress(level.isCompleted() ? 1 : 0);
+        }
+
+        private Button makeLevelButton() {
+            Button button = new Button("", new BorderPane(makeNumberLabel(), null, null, levelCompletionBar, null));
+
+            button.setPadding(new Insets(0, 0, LEVEL_COMPLETION_BAR_SPACING, 0));
+            button.setPrefSize(LEVEL_BUTTON_SIZE, LEVEL_BUTTON_SIZE);
+            button.setMaxSize(Region.USE_PREF_SIZE, Region.USE_PREF_SIZE);
+            FlowPane.setMargin(button, new Insets(0, LEVEL_BUTTON_MARGIN, LEVEL_BUTTON_MARGIN, 0));
+
+            return button;
+        }
+
+        private Label makeNumberLabel() {
+            Label levelNumber = new Label(level.getNumber());
+
+            levelNumber.setFont(new Font(Main.APP_FONT_NAME, 15));
+            BorderPane.setAlignment(levelNumber, Pos.CENTER);
+
+            return levelNumber;
+        }
+
+        private ProgressBar makeLevelCompletionBar() {
+            ProgressBar levelCompletionBar = new ProgressBar();
+
+            BorderPane.setAlignment(levelCompletionBar, Pos.BOTTOM_CENTER);
+            levelCompletionBar.setPrefWidth(LEVEL_BUTTON_SIZE - LEVEL_COMPLETION_BAR_SPACING * 2);
+            levelCompletionBar.setMouseTransparent(true);
+
+            return levelCompletionBar;
+        }
+    }
 }
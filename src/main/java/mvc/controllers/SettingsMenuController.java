@@ -5,9 +5,12 @@ import javafx.collections.ListChangeListener;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ColorPicker;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.Slider;
 import javafx.scene.paint.Color;
+import mvc.controllers.gameplay.GamePlayController;
 import mvc.help.FXController;
 import start.Main;
 import util.collections.MapUtils;
@@ -41,6 +44,10 @@ public class SettingsMenuController extends FXController {
     private ComboBox<Language> langSelector;
     @FXML
     private ColorPicker gpColorPicker;
+    @FXML
+    private CheckBox fieldRevealCheckBox;
+    @FXML
+    private Slider gpSpeedSlider;
 
     /**
      * {@inheritDoc}
@@ -49,6 +56,8 @@ public class SettingsMenuController extends FXController {
     public void init() {
         setupLanguageSelector();
         setupGPColorPicker();
+        setupFieldRevealCheckBox();
+        setupGPSpeedSlider();
     }
 
     private void setupLanguageSelector() {
@@ -88,6 +97,27 @@ public class SettingsMenuController extends FXController {
         });
     }
 
+    private void setupFieldRevealCheckBox() {
+        fieldRevealCheckBox.setSelected(Boolean.parseBoolean(
+                Main.getAppSettings().getSettingOrElse(GamePlayController.FIELD_REVEAL_SETTING, "true")));
+        fieldRevealCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> {
+            Main.getAppSettings().setSetting(GamePlayController.FIELD_REVEAL_SETTING, String.valueOf(newValue));
+        });
+    }
+
+    private void setupGPSpeedSlider() {
+        gpSpeedSlider.setMin(GamePlayController.MIN_GP_SPEED);
+        gpSpeedSlider.setMax(GamePlayController.MAX_GP_SPEED);
+        gpSpeedSlider.setValue(GamePlayController.parseGPSpeed(
+                Main.getAppSettings().getSetting(GamePlayController.GP_SPEED_SETTING)));
+        gpSpeedSlider.valueProperty().addListener((observable, oldValue, newValue) -> {
+            // Slider snaps to ticks only when it's released, so value is rounded here (and saved only when it changes)
+            long speed = Math.round(newValue.doubleValue());
+            if (speed != Math.round(oldValue.doubleValue()))
+                Main.getAppSettings().setSetting(GamePlayController.GP_SPEED_SETTING, String.valueOf(speed));
+        });
+    }
+
     /**
      * {@inheritDoc}
      */
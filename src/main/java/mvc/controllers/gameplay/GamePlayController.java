@@ -1,6 +1,5 @@
 package mvc.controllers.gameplay;
 
-import com.sun.javafx.geom.Line2D;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
@@ -18,29 +17,36 @@ import javafx.scene.paint.Color;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import levels.Level;
+import levels.LevelGrid;
 import levels.cells.CellType;
-import levels.cells.LevelCell;
 import levels.cells.StartCell;
+import levels.game.GameSession;
+import levels.game.Move;
 import mvc.controllers.LevelCompletedController;
 import mvc.help.ExternalStorage;
 import mvc.help.FXController;
 import start.Main;
-import util.collections.LIFOQueue;
-import util.collections.Stack;
+import util.future.FutureTasks;
+import util.future.ScheduledTask;
 import util.javafx.animation.ExtendedAnimationTimer;
 import util.javafx.scenes.SceneContent;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
 
 /**
- * Main game play controller. It's the most difficult. Here're all game logic.
+ * Main game play controller. It's the most difficult. Rules of the game are in {@link GameSession}, controller only
+ * passes moves of user to it and animates pointer and step lines.
  */
 public class GamePlayController extends FXController {
+    /** Lower layer of field. Cells never change while level is played, so they're drawn here only once, when field
+     * appears (see {@link FieldDrawAnimation}). */
+    @FXML
+    private volatile Canvas fieldCanvas;
+    private volatile GraphicsContext fieldGraphics;
+    /** Upper layer of field, it's transparent and lies over {@link #fieldCanvas}. Here're step lines, start cell and
+     * GP - all things, that change while playing. */
     @FXML
     private volatile Canvas gameCanvas;
     private volatile GraphicsContext graphics;
@@ -58,58 +64,74 @@ public class GamePlayController extends FXController {
      * </i> */
     private volatile int pointerY;
     private static final int GAME_POINTER_SIZE = 25;
+    /** Key of setting, which turns on/off {@link FieldDrawAnimation field reveal}. Value is {@code "true"} (default) or
+     * {@code "false"}. */
+    public static final String FIELD_REVEAL_SETTING = "field-reveal-animation";
+    /** Showing of "level completed" dialog, it's scheduled when level is completed. */
+    private volatile ScheduledTask levelCompletedTask;
+    /** Animation of field appearance, it's {@code null} if reveal is turned off or there's no level. */
+    private volatile FieldDrawAnimation fieldDrawAnimation;
     private static final Color GAME_POINTER_COLOR =
             Color.web(Main.getAppSettings().getSettingOrElse("gp-color", "#439D1C"));
+    /** Key of setting with speed of GP in cells per second, see {@link #parseGPSpeed(String)}. */
+    public static final String GP_SPEED_SETTING = "gp-speed";
+    public static final double DEFAULT_GP_SPEED = 4;
+    public static final double MIN_GP_SPEED = 1;
+    public static final double MAX_GP_SPEED = 20;
+    /** Speed of GP in cells per second. One move takes {@code 1 / GAME_POINTER_SPEED} seconds on any display. */
+    private static final double GAME_POINTER_SPEED = parseGPSpeed(Main.getAppSettings().getSetting(GP_SPEED_SETTING));
     private volatile boolean movingPointer = false;
     /** Handler for key input. Extracted to object because I need to remove it from list of handlers when
      * {@link #actionButtonPressed(ActionEvent)} receives action from "end game" button. */
     private volatile EventHandler<KeyEvent> GP_MOVE_EVENT_HANDLER;
 
+    /** Grid of {@link #currentLevel() current level}. Saved in {@link #wakeUp()} to avoid getting it on every frame. */
+    private volatile LevelGrid levelGrid;
     private volatile int levelGridWidth;
     private volatile int levelGridHeight;
-
     /**
-     * Undo stack for moves. When you press {@code Ctrl+Z} or use button "Undo" - last move from this stack moves to
-     * {@link #redoStack}, and it's also being executed. This stack appends when you move.
+     * Playing of current level: position of GP, visited cells, path and history of moves. It's created in
+     * {@link #wakeUp()}. Moves are applied to session at once, and then GP is animated to its new cell.
      *
      * @see #doUndo()
      * @see #doRedo()
-     *
-     */
-    private volatile LIFOQueue<Move> undoStack = new Stack<>();
-    private volatile boolean undoFlag = false;
-    /**
-     * Redo stack for moves. When you press {@code Ctrl+R} or use button "Redo" - last move from this stack moves to
-     * {@link #undoStack}, and it's also being executed.
-     *
-     * @see #doUndo()
-     * @see #doRedo()
-     *
      */
-    private volatile LIFOQueue<Move> redoStack = new Stack<>();
+    private volatile GameSession session;
 
     private volatile Alert exitDialog;
     private static final ButtonType EXIT_OPTION = new ButtonType(Main.getLocaleStr("exit"), ButtonBar.ButtonData.YES);
     private static final ButtonType CANCEL_OPTION = new ButtonType(Main.getLocaleStr("cancel"), ButtonBar.ButtonData.NO);
 
-    private volatile List<Line2D> stepLines = new ArrayList<>(0);
-
     public volatile int startCellX;
     public volatile int startCellY;
     private volatile StartCell startCell;
 
     private volatile double startTime = System.nanoTime();
 
+    /** The only animation of GP move, it's reused for all moves. */
+    private final PointerMoveAnimation pointerMoveAnimation = new PointerMoveAnimation();
+
+    /**
+     * Animation of GP move. There's only one instance of it per controller ({@link #pointerMoveAnimation}), it's
+     * restarted for each move by {@link #startMove(Move, boolean)}. Move is already applied to {@link #session}, so
+     * animation only moves GP from its old cell to new one.
+     */
     private class PointerMoveAnimation extends ExtendedAnimationTimer {
-        /** End position of pointer move on X axis. By default it equals {@link #pointerX}, but in
-         * {@link #PointerMoveAnimation(Move, StepCause)}  constructor} it's changed by move value. */
-        int goalX = pointerX;
-        /** End position of pointer move on Y axis. By default it equals {@link #pointerY}, but in
-         * {@link #PointerMoveAnimation(Move, StepCause) constructor} it's changed by move value. */
-        int goalY = pointerY;
-        /** Speed ({@code pixels/frame}) of pointer movement. It can be only a multiple of {@code 3} or {@code 5}, and also
-         * it can equal {@code 1}. */
-        final int MOVE_SPEED = 3;
+        /** End position of pointer move on X axis. In {@link #startMove(Move, boolean)} it's set to {@link #pointerX}
+         * and changed by move value. */
+        int goalX;
+        /** End position of pointer move on Y axis. In {@link #startMove(Move, boolean)} it's set to {@link #pointerY}
+         * and changed by move value. */
+        int goalY;
+        /** Duration of one move in nanoseconds, it depends only on {@link #GAME_POINTER_SPEED}, not on frame rate. */
+        final long moveDuration = (long) (1_000_000_000.0 / GAME_POINTER_SPEED);
+        /** Timestamp of the first frame of move, {@code -1} before it. */
+        long moveStartTime;
+        /**
+         * Count of cells of path, which are already connected by lines. Current step line goes from the last of them to
+         * GP: when GP moves forward, it's cell, which GP leaves, when GP moves back - cell, to which it returns.
+         */
+        int linedPathLength;
 
         /**
          * Variable-stopper for method {@link #start()}.
@@ -118,82 +140,31 @@ public class GamePlayController extends FXController {
          * @see #start()
          *
          */
-        boolean stopped = false;
+        boolean stopped;
 
         /** Saved {@code x} position to draw line when moving GP (line start = this var, line end = {@link #pointerX}). */
-        int startX = pointerX;
+        int startX;
         /** Saved {@code y} position to draw line when moving GP (line start = this var, line end = {@link #pointerY}). */
-        int startY = pointerY;
-
-        PointerMoveAnimation(Move moveToDo, StepCause stepCause) {
-            movingPointer = true;
-            setupGoalCoordinates(moveToDo);
-            if (canStepOnGoalCell()) {
-                // Thinking, what to do with stacks (if reached this place, step will be done)
-                switch (stepCause) {
-                    case KEY_WAS_PRESSED:
-                        undoStack.push(moveToDo);
-                        redoStack.clear();
-                        break;
-
-                    case DOING_REDO:
-                    case DOING_UNDO:
-                        undoStack.pop();
-                        redoStack.push(moveToDo);
-                        break;
-                }
-            } else
-                stop();
-        }
+        int startY;
 
-        private boolean canStepOnGoalCell() {
-            LevelCell goalCell = currentLevel().getGrid().get(goalX / CELL_SIZE).get(goalY / CELL_SIZE);
-            if (goalCell.getType() == CellType.WALL || goalCell.getType() == CellType.BACKGROUND_SQUARE ||
-                    (goalCell.isVisited()) && !undoFlag) {
-                stop();
-                return false;
-            }
-            return true;
-        }
+        /**
+         * Resets animation and starts move from current position of GP.
+         *
+         * @param move    move, which is already applied to {@link #session}
+         * @param forward {@code true} if GP moves forward (move or redo), {@code false} if it returns back (undo)
+         */
+        void startMove(Move move, boolean forward) {
+            startX = pointerX;
+            startY = pointerY;
+            goalX = pointerX + move.getDeltaX() * CELL_SIZE;
+            goalY = pointerY + move.getDeltaY() * CELL_SIZE;
+            linedPathLength = forward ? session.getPathLength() - 1 : session.getPathLength();
+            moveStartTime = -1;
+            stopped = false;
+            setEndAction(null);
 
-        private void setupGoalCoordinates(Move move) {
-            switch (move) {
-                case UP:
-                    if (pointerY == 0) {
-                        stop();
-                        return;
-                    }
-
-                    goalY = pointerY - CELL_SIZE;
-                    break;
-
-                case LEFT:
-                    if (pointerX == 0) {
-                        stop();
-                        return;
-                    }
-
-                    goalX = pointerX - CELL_SIZE;
-                    break;
-
-                case DOWN:
-                    if (pointerY >= (levelGridHeight - 1) * CELL_SIZE) {
-                        stop();
-                        return;
-                    }
-
-                    goalY = pointerY + CELL_SIZE;
-                    break;
-
-                case RIGHT:
-                    if (pointerX >= (levelGridWidth - 1) * CELL_SIZE) {
-                        stop();
-                        return;
-                    }
-
-                    goalX = pointerX + CELL_SIZE;
-                    break;
-            }
+            movingPointer = true;
+            start();
         }
 
         /**
@@ -201,67 +172,60 @@ public class GamePlayController extends FXController {
          */
         @Override
         public void handle(long now) {
-            incrementCoordinates();
-            redrawField();
-            drawStepLines();
-            startCell.draw(startCellX, startCellY, graphics, GamePlayController.this);
-            drawGP();
+            updateCoordinates(now);
+            redrawMoveRegion();
 
             // If we reached goal coordinates...
             if (pointerX == goalX && pointerY == goalY) {
-                // If undo flag is null, we add new line to stepLines
-                if (!undoFlag) stepLines.add(new Line2D(startX, startY, pointerX, pointerY));
-                currentLevel().getGrid().get(pointerX / CELL_SIZE).get(pointerY / CELL_SIZE).setVisited(true);
-
-                LevelCell current = currentLevel().getGrid().get(goalX / CELL_SIZE).get(goalY / CELL_SIZE);
-                if (current.getType() == CellType.FINISH && areAllCellsVisited()) {
+                if (session.isCompleted()) {
                     // This thing will be activated after timer stop
                     // I use this because if AnimationTimer isn't stopped, you can't show new stage
                     // And my own implementation allows to do this
                     setEndAction(() -> {
                         removeGPMovement();
 
-                        // Getting index of current level
-                        int currentLvlI = ExternalStorage.getInstance().selectedCampaign.indexOfLevel(currentLevel());
-                        currentLevel().setCompleted(true);
-
-                        if (currentLvlI + 1 < ExternalStorage.getInstance().selectedCampaign.levelsCount())
-                            ExternalStorage.getInstance().selectedCampaign.getLevel(currentLvlI + 1)
-                                    .getButtonRepresentation().setDisable(false);
-
-                        // Small delay
-                        delay(500);
-                        // Getting scene content
-                        SceneContent sceneContent = Main.getSceneContent("level-completed-dialog.fxml");
-
-                        // Creating and customising window/stage
-                        Stage levelCompletedDialog = new Stage();
-                        levelCompletedDialog.setTitle(getLocaleStr("header.base") + " - " +
-                                getLocaleStr("levels.completed.header"));
-                        levelCompletedDialog.setMinHeight(150);
-                        levelCompletedDialog.setMinWidth(300);
-                        levelCompletedDialog.setResizable(false);
-                        levelCompletedDialog.setScene(sceneContent.scene);
-                        levelCompletedDialog.initModality(Modality.WINDOW_MODAL);
-                        levelCompletedDialog.initOwner(Main.primaryStage);
-
-                        // Initializing controller
-                        LevelCompletedController controller = (LevelCompletedController) sceneContent.controller;
-                        controller.shutdown();
-                        controller.wakeUp();
-                        // Setting count of moves and time used to complete level
-                        controller.moveCountLabel.setText(String.valueOf(stepLines.size()));
-                        controller.passingTimeLabel.setText((new BigDecimal(
-                                // Converting passing time from nano seconds to seconds
-                                // 1. 1 microsecond = 1000 nanoseconds
-                                // 2. 1 millisecond = 1000 microseconds
-                                // 3. 1 second      = 1000 milliseconds
-                                ((double) System.nanoTime() - startTime) / 1_000_000_000.0)
-                                // Rounding received passing time in seconds to third digit after point
-                                .round(new MathContext(4))) + " " + getLocaleStr("abbreviations.seconds"));
-
-                        // Showing stage/window
-                        levelCompletedDialog.showAndWait();
+                        // Next level becomes unlocked, its button is updated when level select menu is shown
+                        if (!currentLevel().isCompleted()) {
+                            currentLevel().setCompleted(true);
+                            Main.getProgressJournal().levelCompleted(ExternalStorage.getInstance().selectedCampaign,
+                                    currentLevel());
+                        }
+
+                        // Small delay, dialog is shown after it (it's cancelled if level is restarted or left
+                        // during delay)
+                        levelCompletedTask = FutureTasks.runLaterWithPermissions(() -> {
+                            // Getting scene content
+                            SceneContent sceneContent = Main.getSceneContent("level-completed-dialog.fxml");
+
+                            // Creating and customising window/stage
+                            Stage levelCompletedDialog = new Stage();
+                            levelCompletedDialog.setTitle(getLocaleStr("header.base") + " - " +
+                                    getLocaleStr("levels.completed.header"));
+                            levelCompletedDialog.setMinHeight(150);
+                            levelCompletedDialog.setMinWidth(300);
+                            levelCompletedDialog.setResizable(false);
+                            levelCompletedDialog.setScene(sceneContent.scene);
+                            levelCompletedDialog.initModality(Modality.WINDOW_MODAL);
+                            levelCompletedDialog.initOwner(Main.primaryStage);
+
+                            // Initializing controller
+                            LevelCompletedController controller = (LevelCompletedController) sceneContent.controller;
+                            controller.shutdown();
+                            controller.wakeUp();
+                            // Setting count of moves and time used to complete level
+                            controller.moveCountLabel.setText(String.valueOf(session.getMovesCount()));
+                            controller.passingTimeLabel.setText((new BigDecimal(
+                                    // Converting passing time from nano seconds to seconds
+                                    // 1. 1 microsecond = 1000 nanoseconds
+                                    // 2. 1 millisecond = 1000 microseconds
+                                    // 3. 1 second      = 1000 milliseconds
+                                    ((double) System.nanoTime() - startTime) / 1_000_000_000.0)
+                                    // Rounding received passing time in seconds to third digit after point
+                                    .round(new MathContext(4))) + " " + getLocaleStr("abbreviations.seconds"));
+
+                            // Showing stage/window
+                            levelCompletedDialog.showAndWait();
+                        }, 500);
                     });
                 }
 
@@ -269,59 +233,79 @@ public class GamePlayController extends FXController {
             }
         }
 
-        private boolean areAllCellsVisited() {
-            boolean allCellsAreVisited = true;
-
-            for (ArrayList<LevelCell> levelPart : currentLevel().getGrid()) {
-                for (LevelCell levelCell : levelPart) {
-                    // If cell is neither empty nor finish and it isn't visited -
-                    // level isn't completed
-                    if (Arrays.asList(CellType.EMPTY,
-                            CellType.FINISH).contains(levelCell.getType())
-                            && !levelCell.isVisited()) {
-                        allCellsAreVisited = false;
-                        break;
-                    }
-                }
-            }
-            return allCellsAreVisited;
-        }
+        /**
+         * Redraws only region of move: cell, from which pointer moves, and goal cell. Pointer and current step line never
+         * leave this region, so other cells don't need redrawing, and frame cost doesn't depend on level size. Region is
+         * clipped, so lines which are partly in region don't change pixels outside of it.
+         *
+         * <p>Cells themselves are on {@link #fieldCanvas lower layer}, so only upper layer is cleared and redrawn.</p>
+         */
+        private void redrawMoveRegion() {
+            final int regionX = Math.min(startX, goalX);
+            final int regionY = Math.min(startY, goalY);
+            final int regionWidth = Math.abs(goalX - startX) + CELL_SIZE;
+            final int regionHeight = Math.abs(goalY - startY) + CELL_SIZE;
+
+            graphics.save();
+            graphics.beginPath();
+            graphics.rect(regionX, regionY, regionWidth, regionHeight);
+            graphics.clip();
+
+            graphics.clearRect(regionX, regionY, regionWidth, regionHeight);
+            drawStepLines();
+            startCell.draw(startCellX, startCellY, graphics, GamePlayController.this);
+            drawGP(GAME_POINTER_COLOR);
 
-        private void drawGP() {
-            graphics.setFill(GAME_POINTER_COLOR);
-            graphics.fillOval(pointerX + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2, pointerY + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2,
-                    GAME_POINTER_SIZE, GAME_POINTER_SIZE);
-            graphics.strokeOval(pointerX + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2, pointerY + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2,
-                    GAME_POINTER_SIZE, GAME_POINTER_SIZE);
+            graphics.restore();
         }
 
+        /**
+         * Draws step lines, which can be in region of move. Each cell is visited once, so only the last line of
+         * {@link #linedPathLength lined part of path} ends in cell, from which pointer moves forward (or to which it
+         * moves back). This line and current step line (from the end of lined part to GP) are drawn as one polyline.
+         * The only exception is start cell (it can be entered again), and it's touched by the first line.
+         */
         private void drawStepLines() {
             graphics.setStroke(Color.BLACK);
             graphics.setLineWidth(4);
 
-            // This draws current step line, GP will be over this line
-            if (!undoFlag) {
-                // startX, startY -> pointerX, pointerY
-                graphics.strokeLine(startX + CELL_SIZE / 2, startY + CELL_SIZE / 2,
-                        pointerX + CELL_SIZE / 2, pointerY + CELL_SIZE / 2);
-            } else {
-                // pointerX, pointerY -> goalX, goalY
-                graphics.strokeLine(pointerX + CELL_SIZE / 2, pointerY + CELL_SIZE / 2,
-                        goalX + CELL_SIZE / 2, goalY + CELL_SIZE / 2);
-            }
+            final int lastLinedCell = session.getPathCell(linedPathLength - 1);
 
-            // This draws other step lines
-            stepLines.forEach(line -> graphics.strokeLine(line.x1 + CELL_SIZE / 2, line.y1 + CELL_SIZE / 2,
-                    line.x2 + CELL_SIZE / 2, line.y2 + CELL_SIZE / 2));
+            // GP will be over these lines
+            graphics.beginPath();
+            if (linedPathLength > 1) {
+                final int previousCell = session.getPathCell(linedPathLength - 2);
+                graphics.moveTo(cellCenterX(previousCell), cellCenterY(previousCell));
+                graphics.lineTo(cellCenterX(lastLinedCell), cellCenterY(lastLinedCell));
+            } else
+                graphics.moveTo(cellCenterX(lastLinedCell), cellCenterY(lastLinedCell));
+            graphics.lineTo(pointerX + CELL_SIZE / 2, pointerY + CELL_SIZE / 2);
+            graphics.stroke();
+
+            if (linedPathLength > 2) {
+                graphics.beginPath();
+                graphics.moveTo(cellCenterX(session.getPathCell(0)), cellCenterY(session.getPathCell(0)));
+                graphics.lineTo(cellCenterX(session.getPathCell(1)), cellCenterY(session.getPathCell(1)));
+                graphics.stroke();
+            }
 
             graphics.setLineWidth(1);
         }
 
-        private void incrementCoordinates() {
-            if (pointerX < goalX) pointerX += MOVE_SPEED;
-            if (pointerY < goalY) pointerY += MOVE_SPEED;
-            if (pointerX > goalX) pointerX -= MOVE_SPEED;
-            if (pointerY > goalY) pointerY -= MOVE_SPEED;
+        /**
+         * Moves pointer to position, where it must be at the moment of frame. Position depends only on time passed from the
+         * first frame of move, so move takes the same time with any refresh rate, and dropped frames don't slow it down.
+         * The last frame puts pointer exactly to goal coordinates.
+         *
+         * @param now timestamp of current frame in nanoseconds
+         */
+        private void updateCoordinates(long now) {
+            if (moveStartTime < 0)
+                moveStartTime = now;
+
+            double progress = Math.min((double) (now - moveStartTime) / moveDuration, 1.0);
+            pointerX = startX + (int) Math.round((goalX - startX) * progress);
+            pointerY = startY + (int) Math.round((goalY - startY) * progress);
         }
 
         /**
@@ -350,29 +334,12 @@ public class GamePlayController extends FXController {
             super.stop();
             stopped = true;
             movingPointer = false;
-            undoFlag = false;
-        }
-    }
-
-    /**
-     * Safe wrapper for {@link Thread#sleep(long)}.
-     *
-     * @param howLong delay time in milliseconds
-     * @throws RuntimeException if catches {@link InterruptedException}, and sets cause to caught
-     *                          {@link InterruptedException}.
-     */
-    private void delay(long howLong) {
-        try {
-            Thread.sleep(howLong);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
         }
     }
 
-    private synchronized void startMovingPointer(Move moveToDo, StepCause stepCause) {
+    private synchronized void startMovingPointer(Move move, boolean forward) {
         // Starting GP move animation
-        PointerMoveAnimation pointerMoveAnimation = new PointerMoveAnimation(moveToDo, stepCause);
-        pointerMoveAnimation.start();
+        pointerMoveAnimation.startMove(move, forward);
     }
 
     /**
@@ -398,27 +365,27 @@ public class GamePlayController extends FXController {
         END_OF_ANIMATION(200);
 
         /**
-         * Length of animation state/"frame"/point in milliseconds.
+         * Length of animation state/"frame"/point in nanoseconds.
          *
          */
-        private int length;
+        private long length;
 
         /**
          * Getter for {@link #length} field.
          *
          * @return value of {@link #length} field.
          */
-        public int getLength() {
+        public long getLength() {
             return length;
         }
 
         /**
          * Creates new animation part with given length
          *
-         * @param length length of this state/"frame"/point.
+         * @param length length of this state/"frame"/point in milliseconds.
          */
         PointerSpawnState(int length) {
-            this.length = length;
+            this.length = length * 1_000_000L;
         }
     }
 
@@ -427,10 +394,10 @@ public class GamePlayController extends FXController {
      * By the way, what this animation does?
      *
      * <ol>
-     *     <li>Firstly, there're two loops (for iterating {@code x} and {@code y} points). Idea is to wait time (it's
-     *     in {@link FieldDrawAnimation#CELL_DRAW_STEP_DELAY}) between iterating steps. There're any {@code for}
-     *     loops in this class, but they're implemented with two variables ({@link #x} and {@link #y}) and {@code if}
-     *     statements.</li>
+     *     <li>Firstly, it reveals cells column by column. Animation never waits inside of {@link #handle(long)} (it would
+     *     freeze whole UI), instead it counts how many cells must be revealed to the moment of current frame and draws
+     *     all of them, so on big levels there're several cells per frame. Time between cells is
+     *     {@link #CELL_REVEAL_INTERVAL}, but whole reveal never takes longer than {@link #MAX_REVEAL_DURATION}.</li>
      *
      *     <li>When all cells are drown - class starts doing animation for GP. There're three steps:
      *         <ol>
@@ -438,27 +405,48 @@ public class GamePlayController extends FXController {
      *             <li>Drawing GP with inverted color (to make blink effect);</li>
      *             <li>Drawing GP with normal color and ending animation.</li>
      *         </ol>
+     *         Each step starts when {@link PointerSpawnState#getLength() length} of previous one has passed.
      *         And, after those all, class setups controls, such as GP control.
      *     </li>
      * </ol>
      *
+     * <p>If reveal is turned off in settings (see {@link #FIELD_REVEAL_SETTING}), this animation isn't used at all, see
+     * {@link #drawFieldAtOnce()}.</p>
+     *
      */
     private class FieldDrawAnimation extends ExtendedAnimationTimer {
         /**
-         * Delay between cell drawings.
+         * Delay between cell drawings in nanoseconds.
+         *
+         */
+        static final long CELL_REVEAL_INTERVAL = 40_000_000L;
+        /**
+         * Max duration of revealing all cells in nanoseconds. Cells of big levels are revealed faster to fit into it.
+         *
+         */
+        static final long MAX_REVEAL_DURATION = 1_500_000_000L;
+
+        /**
+         * Delay between cell drawings for current level.
          *
          */
-        static final int CELL_DRAW_STEP_DELAY = 40;
+        final long revealInterval = Math.max(Math.min(CELL_REVEAL_INTERVAL,
+                MAX_REVEAL_DURATION / levelGrid.getCellsCount()), 1);
         /**
-         * Current x position.
+         * Count of revealed cells. Cells are revealed in order of their {@link LevelGrid#indexOf(int, int) indexes}.
          *
          */
-        int x = 0;
+        int revealedCells = 0;
         /**
-         * Current y position.
+         * Timestamp of the first frame, {@code -1} before it.
          *
          */
-        int y = 0;
+        long revealStartTime = -1;
+        /**
+         * Timestamp, when current state of GPSA has started.
+         *
+         */
+        long stateStartTime;
 
         /**
          * State of GP spawn animation. When it's {@code null} - there's no GPSA (<b>G</b>ame <b>P</b>ointer <b>S</b>pawn
@@ -493,72 +481,93 @@ public class GamePlayController extends FXController {
          */
         @Override
         public void handle(long now) {
-            redrawFieldCell(x, y);
+            if (revealStartTime < 0)
+                revealStartTime = now;
+
+            // Revealing all cells, which time has come
+            if (animationState == null) {
+                final int cellsCount = levelGrid.getCellsCount();
+                long cellsToReveal = Math.min((now - revealStartTime) / revealInterval + 1, cellsCount);
 
-            if (x * CELL_SIZE == startCellX && y * CELL_SIZE == startCellY)
-                startCell.draw(startCellX, startCellY, graphics, GamePlayController.this);
+                for (; revealedCells < cellsToReveal; revealedCells++)
+                    revealCell(levelGrid.xOf(revealedCells), levelGrid.yOf(revealedCells));
 
-            // If all cells are drown, start GPSA
-            if (x >= levelGridWidth - 1 && y >= levelGridHeight - 1 && animationState == null) {
-                animationState = PointerSpawnState.DRAW_NORMAL_POINTER;
+                // If all cells are drown, start GPSA
+                if (revealedCells == cellsCount) {
+                    animationState = PointerSpawnState.DRAW_NORMAL_POINTER;
+                    stateStartTime = now;
+                }
                 return;
             }
 
+            if (now - stateStartTime < animationState.getLength())
+                return;
+            stateStartTime = now;
+
             // GPSA - 1st step
             if (animationState == PointerSpawnState.DRAW_NORMAL_POINTER) {
-                delay(animationState.getLength());
-
-                graphics.setFill(GAME_POINTER_COLOR);
-                graphics.fillOval(pointerX + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2,
-                        pointerY + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2, GAME_POINTER_SIZE, GAME_POINTER_SIZE);
-                graphics.strokeOval(pointerX + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2,
-                        pointerY + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2, GAME_POINTER_SIZE, GAME_POINTER_SIZE);
-
+                drawGP(GAME_POINTER_COLOR);
                 animationState = PointerSpawnState.DRAW_INVERTED_POINTER;
                 return;
             }
 
             // GPSA - 2nd step
             if (animationState == PointerSpawnState.DRAW_INVERTED_POINTER) {
-                delay(animationState.getLength());
-
-                Color invertedPointerColor = invertColor(GAME_POINTER_COLOR);
-
-                graphics.setFill(invertedPointerColor);
-                graphics.fillOval(pointerX + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2,
-                        pointerY + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2, GAME_POINTER_SIZE, GAME_POINTER_SIZE);
-                graphics.strokeOval(pointerX + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2,
-                        pointerY + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2, GAME_POINTER_SIZE, GAME_POINTER_SIZE);
-
+                drawGP(invertColor(GAME_POINTER_COLOR));
                 animationState = PointerSpawnState.END_OF_ANIMATION;
                 return;
             }
 
             // GPSA - 3nd step
             if (animationState == PointerSpawnState.END_OF_ANIMATION) {
-                delay(animationState.getLength());
-
-                graphics.setFill(GAME_POINTER_COLOR);
-                graphics.fillOval(pointerX + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2,
-                        pointerY + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2, GAME_POINTER_SIZE, GAME_POINTER_SIZE);
-                graphics.strokeOval(pointerX + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2,
-                        pointerY + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2, GAME_POINTER_SIZE, GAME_POINTER_SIZE);
+                drawGP(GAME_POINTER_COLOR);
 
                 // GPSA - 4th step
                 setupGPMovement();
                 stop();
-                return;
-            }
-
-            // This's "for loop"
-            y++;
-            if (y > levelGridHeight - 1) {
-                x++;
-                y = 0;
             }
+        }
+    }
 
-            delay(CELL_DRAW_STEP_DELAY);
+    /**
+     * Used instead of {@link FieldDrawAnimation}, when reveal is turned off in settings. Draws all cells and GP in one go
+     * and setups controls.
+     *
+     */
+    private void drawFieldAtOnce() {
+        for (int x = 0; x < levelGridWidth; x++) {
+            for (int y = 0; y < levelGridHeight; y++)
+                revealCell(x, y);
         }
+
+        drawGP(GAME_POINTER_COLOR);
+        setupGPMovement();
+    }
+
+    /**
+     * Draws cell when field appears. Start cell is drawn on upper layer, other cells - on field layer.
+     *
+     * @param x x position of cell. <i><b>Note:</b> it's position in {@link LevelGrid}, not in canvas.</i>
+     * @param y y position of cell. <i><b>Note:</b> it's position in {@link LevelGrid}, not in canvas.</i>
+     */
+    private void revealCell(int x, int y) {
+        redrawFieldCell(x, y);
+
+        if (x * CELL_SIZE == startCellX && y * CELL_SIZE == startCellY)
+            startCell.draw(startCellX, startCellY, graphics, this);
+    }
+
+    /**
+     * Draws GP at its current position on upper layer.
+     *
+     * @param color fill color of GP
+     */
+    private void drawGP(Color color) {
+        graphics.setFill(color);
+        graphics.fillOval(pointerX + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2, pointerY + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2,
+                GAME_POINTER_SIZE, GAME_POINTER_SIZE);
+        graphics.strokeOval(pointerX + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2, pointerY + CELL_SIZE / 2 - GAME_POINTER_SIZE / 2,
+                GAME_POINTER_SIZE, GAME_POINTER_SIZE);
     }
 
     /**
@@ -578,14 +587,67 @@ public class GamePlayController extends FXController {
                 } else if (keyCode == KeyCode.R && event.isControlDown()) {
                     // Redo on Ctrl+R
                     doRedo();
-                } else if (Arrays.asList(KeyCode.W, KeyCode.A, KeyCode.S, KeyCode.D,
-                        KeyCode.UP, KeyCode.LEFT, KeyCode.DOWN, KeyCode.RIGHT).contains(keyCode))
-                    startMovingPointer(Move.getStepFromKeyCode(keyCode), StepCause.KEY_WAS_PRESSED);
+                } else {
+                    Move move = moveFromKeyCode(keyCode);
+                    if (move != null && session.apply(move))
+                        startMovingPointer(move, true);
+                }
             }
         };
         Main.primaryStage.addEventHandler(KeyEvent.KEY_PRESSED, GP_MOVE_EVENT_HANDLER);
     }
 
+    /**
+     * Parses speed of GP from settings. Speed must be positive and finite, otherwise GP never reaches goal cell (and
+     * input stays locked), so it's clamped to range {@code [MIN_GP_SPEED; MAX_GP_SPEED]}.
+     *
+     * @param value value of {@link #GP_SPEED_SETTING}, it can be {@code null}
+     * @return speed in cells per second. If value isn't a number, it's {@link #DEFAULT_GP_SPEED}.
+     */
+    public static double parseGPSpeed(String value) {
+        if (value == null)
+            return DEFAULT_GP_SPEED;
+
+        try {
+            double speed = Double.parseDouble(value.trim());
+            if (Double.isNaN(speed))
+                return DEFAULT_GP_SPEED;
+
+            return Math.max(MIN_GP_SPEED, Math.min(speed, MAX_GP_SPEED));
+        } catch (NumberFormatException e) {
+            return DEFAULT_GP_SPEED;
+        }
+    }
+
+    /**
+     * Returns move, which is bound to key: {@code W}, {@code A}, {@code S}, {@code D} or arrows.
+     *
+     * @param keyCode code of pressed key
+     * @return move, or {@code null} if key isn't bound to move.
+     */
+    private static Move moveFromKeyCode(KeyCode keyCode) {
+        switch (keyCode) {
+            case W:
+            case UP:
+                return Move.UP;
+
+            case A:
+            case LEFT:
+                return Move.LEFT;
+
+            case S:
+            case DOWN:
+                return Move.DOWN;
+
+            case D:
+            case RIGHT:
+                return Move.RIGHT;
+
+            default:
+                return null;
+        }
+    }
+
     /**
      * Removes {@link KeyEvent} handler for moving GP.
      *
@@ -605,6 +667,7 @@ public class GamePlayController extends FXController {
         this.startCellX = 0;
         this.startCellY = 0;
 
+        fieldGraphics = fieldCanvas.getGraphicsContext2D();
         graphics = gameCanvas.getGraphicsContext2D();
 
         // Exit dialog setup
@@ -627,23 +690,21 @@ public class GamePlayController extends FXController {
      */
     @Override
     public void wakeUp() {
-        currentLevel().getGrid().forEach(column -> column.forEach(levelCell -> levelCell.setVisited(false)));
-        levelGridWidth = currentLevel().getGrid().size();
-        levelGridHeight = currentLevel().getGrid().get(0).size();
+        levelGrid = currentLevel().getGrid();
+        levelGridWidth = levelGrid.getWidth();
+        levelGridHeight = levelGrid.getHeight();
+        session = new GameSession(levelGrid);
 
         // Getting info about start cell
-        for (int x = 0; x < levelGridWidth; x++) {
-            for (int y = 0; y < levelGridHeight; y++) {
-                if (currentLevel().getGrid().get(x).get(y).getType() == CellType.START) {
-                    startCell = (StartCell) currentLevel().getGrid().get(x).get(y);
-                    pointerX = startCellX = CELL_SIZE * x;
-                    pointerY = startCellY = CELL_SIZE * y;
-                }
-            }
-        }
-
-        FieldDrawAnimation drawAnimation = new FieldDrawAnimation();
-        drawAnimation.start();
+        startCell = (StartCell) levelGrid.getCell(session.getStartX(), session.getStartY());
+        pointerX = startCellX = CELL_SIZE * session.getStartX();
+        pointerY = startCellY = CELL_SIZE * session.getStartY();
+
+        if (Boolean.parseBoolean(Main.getAppSettings().getSettingOrElse(FIELD_REVEAL_SETTING, "true"))) {
+            fieldDrawAnimation = new FieldDrawAnimation();
+            fieldDrawAnimation.start();
+        } else
+            drawFieldAtOnce();
     }
 
     /**
@@ -651,7 +712,18 @@ public class GamePlayController extends FXController {
      */
     @Override
     public void shutdown() {
+        // Field can be left or restarted while it's being revealed
+        if (fieldDrawAnimation != null) {
+            fieldDrawAnimation.stop();
+            fieldDrawAnimation = null;
+        }
+        pointerMoveAnimation.stop();
+        if (levelCompletedTask != null) {
+            levelCompletedTask.cancel();
+            levelCompletedTask = null;
+        }
         removeGPMovement();
+        fieldGraphics.clearRect(0, 0, fieldCanvas.getWidth(), fieldCanvas.getHeight());
         graphics.clearRect(0, 0, gameCanvas.getWidth(), gameCanvas.getHeight());
 
         this.startTime = System.nanoTime();
@@ -660,40 +732,38 @@ public class GamePlayController extends FXController {
         this.pointerY = 0;
         this.startCellY = 0;
         this.movingPointer = false;
-        this.undoFlag = false;
-        this.undoStack = new Stack<>();
-        this.redoStack = new Stack<>();
-        this.stepLines = new ArrayList<>();
+        this.session = null;
         this.startCell = null;
     }
 
     /**
-     * Redraws <b>one</b> cell on field.
+     * Returns {@code x} coordinate of cell's center on canvas.
      *
-     * @param x x position of cell. <i><b>Note:</b> it's position in {@link Level#grid}, not in canvas.</i>
-     * @param y y position of cell. <i><b>Note:</b> it's position in {@link Level#grid}, not in canvas.</i>
+     * @param cell index of cell in {@link LevelGrid}
+     * @return {@code x} coordinate of cell's center.
      */
-    @SuppressWarnings("deprecation")
-    private void redrawFieldCell(int x, int y) {
-        LevelCell cell = currentLevel().getGrid().get(x).get(y);
-        if (cell.getType() != CellType.START) cell.draw(x, y, graphics, this);
+    private double cellCenterX(int cell) {
+        return levelGrid.xOf(cell) * CELL_SIZE + CELL_SIZE / 2;
     }
 
     /**
-     * Redraws all field.
+     * Returns {@code y} coordinate of cell's center on canvas.
      *
+     * @param cell index of cell in {@link LevelGrid}
+     * @return {@code y} coordinate of cell's center.
      */
-    private void redrawField() {
-        // Clear canvas and setup colors
-        graphics.clearRect(0, 0, gameCanvas.getWidth(), gameCanvas.getHeight());
-        graphics.setStroke(Color.BLACK);
-        graphics.setLineWidth(1);
+    private double cellCenterY(int cell) {
+        return levelGrid.yOf(cell) * CELL_SIZE + CELL_SIZE / 2;
+    }
 
-        for (int x = 0; x < levelGridWidth; x++) {
-            for (int y = 0; y < levelGridHeight; y++) {
-                redrawFieldCell(x, y);
-            }
-        }
+    /**
+     * Redraws <b>one</b> cell on {@link #fieldCanvas field layer}. Start cell isn't drawn here, it's on upper layer.
+     *
+     * @param x x position of cell. <i><b>Note:</b> it's position in {@link LevelGrid}, not in canvas.</i>
+     * @param y y position of cell. <i><b>Note:</b> it's position in {@link LevelGrid}, not in canvas.</i>
+     */
+    private void redrawFieldCell(int x, int y) {
+        if (levelGrid.getCellType(x, y) != CellType.START) levelGrid.getCell(x, y).draw(x, y, fieldGraphics, this);
     }
 
     /**
@@ -737,16 +807,15 @@ public class GamePlayController extends FXController {
     /**
      * Activates when you need to redo something.
      *
-     * @see #undoStack
-     * @see #redoStack
+     * @see GameSession#redo()
      *
      */
     private void doRedo() {
         if (!movingPointer) {
-            Move move = redoStack.last();
+            Move move = session.redo();
 
             if (move != null) {
-                startMovingPointer(move, StepCause.DOING_REDO);
+                startMovingPointer(move, true);
             }
         }
     }
@@ -754,61 +823,20 @@ public class GamePlayController extends FXController {
     /**
      * Activates when you need to undo something.
      *
-     * @see #undoStack
-     * @see #redoStack
+     * @see GameSession#undo()
      *
      */
     private void doUndo() {
         if (!movingPointer) {
-            Move move = undoStack.last();
-
-            if (move != null && stepLines.size() != 0) {
-                stepLines.remove(stepLines.size() - 1);
-
-                if (currentLevel().getGrid().get(pointerX / CELL_SIZE).get(pointerY / CELL_SIZE).isVisited())
-                    currentLevel().getGrid().get(pointerX / CELL_SIZE).get(pointerY / CELL_SIZE).setVisited(false);
-
-                // Inverting move
-                switch (move) {
-                    case UP:
-                        move = Move.DOWN;
-                        break;
-
-                    case LEFT:
-                        move = Move.RIGHT;
-                        break;
+            // Session returns move back, so GP just goes in its direction
+            Move move = session.undo();
 
-                    case DOWN:
-                        move = Move.UP;
-                        break;
-
-                    case RIGHT:
-                        move = Move.LEFT;
-                        break;
-                }
-
-                undoFlag = true;
-                startMovingPointer(move, StepCause.DOING_UNDO);
+            if (move != null) {
+                startMovingPointer(move, false);
             }
         }
     }
 
-    /**
-     * Enum with causes of steps.
-     *
-     * @see #KEY_WAS_PRESSED
-     * @see #DOING_REDO
-     * @see #DOING_UNDO
-     */
-    private enum StepCause {
-        /** This cause is used when user presses key. */
-        KEY_WAS_PRESSED,
-        /** This cause is used when doing undo (in method {@link #doUndo()}) */
-        DOING_UNDO,
-        /** This cause is used when doing redo (in method {@link #doRedo()}) */
-        DOING_REDO
-    }
-
     /**
      * Shortcut for calling <code>Storage.getInstance().currentLevel</code>.
      *
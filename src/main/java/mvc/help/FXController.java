@@ -1,7 +1,7 @@
 package mvc.help;
 
 import start.Main;
-import util.javafx.scenes.SceneLoader;
+import util.javafx.scenes.SceneRegistry;
 
 import java.util.ResourceBundle;
 
@@ -18,8 +18,8 @@ public abstract class FXController implements Cloneable {
     }
 
     /**
-     * Initializes controller's components. This method is activated when {@link SceneLoader#loadAllFromDirectory(String)}
-     * loads scene, this thing is like constructor or JavaFX's native {@code initialize}.
+     * Initializes controller's components. This method is activated when {@link SceneRegistry} loads scene, this thing
+     * is like constructor or JavaFX's native {@code initialize}.
      */
     public abstract void init();
 
@@ -0,0 +1,333 @@
+package settings;
+
+import levels.Level;
+import levels.LevelPack;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only journal of progress: completed levels and changed settings. Each event is one line, which is appended to
+ * the end of file when event happens, so saving doesn't depend on count of levels, and progress isn't lost if
+ * application is killed. Files of level packs and settings aren't rewritten, they keep initial state, and journal is
+ * replayed over them at startup (see {@link #replaySettings(Settings)} and {@link #replayLevels(LevelPack...)}).
+ *
+ * <p>Format of line (fields are separated by tabs, tabs, line breaks and backslashes inside of fields are escaped):</p>
+ * <pre><code>
+ * completed    &lt;name of pack&gt;    &lt;number of level&gt;
+ * setting      &lt;key&gt;             &lt;value&gt;
+ * </code></pre>
+ *
+ * <p>Lines are written by one background thread, so JavaFX Application Thread never waits for disk. When journal grows,
+ * it's compacted: only the last record of each setting and one record of each completed level are kept. Compacted
+ * journal is written to temporary file, which then replaces journal, so journal is never half-written. If the last line
+ * of journal is broken (application was killed during writing), it's ignored.</p>
+ */
+public class ProgressJournal implements Closeable {
+    private static final String COMPLETED_RECORD = "completed";
+    private static final String SETTING_RECORD = "setting";
+    private static final char SEPARATOR = '\t';
+    /** Journal isn't compacted, while it has less records. */
+    private static final int MIN_COMPACTION_THRESHOLD = 256;
+    private static final long CLOSE_TIMEOUT = 5;
+
+    private final Path path;
+    private final ExecutorService writerThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ProgressJournal-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Records, which were read when journal was opened. Settings and levels can be replayed from them independently. */
+    private final List<String[]> loadedRecords;
+
+    // These fields are used only by writer thread (and by constructor, before it's started)
+    private Writer out;
+    private int recordsCount;
+    private int compactionThreshold;
+    /**
+     * Length of valid part of journal, if journal ends with broken line, which isn't removed yet, or {@code -1}. Broken
+     * line is removed by compaction, or (if compaction fails) it's cut off before journal is opened for appending.
+     */
+    private long brokenLineStart = -1;
+
+    private ProgressJournal(Path path) throws IOException {
+        this.path = path;
+
+        byte[] bytes = Files.exists(path) ? Files.readAllBytes(path) : new byte[0];
+        // Everything after the last line break is broken line
+        int validLength = bytes.length;
+        while (validLength > 0 && bytes[validLength - 1] != '\n')
+            validLength--;
+
+        this.loadedRecords = parseRecords(new String(bytes, 0, validLength, StandardCharsets.UTF_8));
+        this.recordsCount = loadedRecords.size();
+        this.compactionThreshold = MIN_COMPACTION_THRESHOLD;
+
+        if (validLength != bytes.length)
+            brokenLineStart = validLength;
+
+        if (brokenLineStart >= 0 || recordsCount >= compactionThreshold) {
+            try {
+                compact(loadedRecords);
+            } catch (IOException e) {
+                // Journal is just bigger than needed (and broken line is cut off below), so progress can be saved
+                e.printStackTrace();
+            }
+        }
+
+        if (out == null) {
+            try {
+                openOutput();
+            } catch (IOException e) {
+                // Progress isn't saved, but game can be played. Opening is retried by each record
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Opens journal. If there's no such file, empty journal is created. If journal can't be written, it's still
+     * opened: records are replayed, and new records are written when writing becomes possible.
+     *
+     * @param path path to journal
+     * @return opened journal, its records aren't applied yet.
+     * @throws IOException if journal can't be read.
+     */
+    public static ProgressJournal open(Path path) throws IOException {
+        return new ProgressJournal(path);
+    }
+
+    /**
+     * Applies records of settings. It's called once, after settings are loaded, but before they're used.
+     *
+     * @param settings settings
+     */
+    public void replaySettings(Settings settings) {
+        for (String[] record : loadedRecords) {
+            if (record.length == 3 && record[0].equals(SETTING_RECORD))
+                settings.setSetting(record[1], record[2]);
+        }
+    }
+
+    /**
+     * Applies records of completed levels. It's called once, after level packs are loaded, but before they're used.
+     * Records of unknown levels and packs are skipped (for example, pack could be renamed).
+     *
+     * @param packs level packs
+     */
+    public void replayLevels(LevelPack... packs) {
+        for (String[] record : loadedRecords) {
+            if (record.length != 3 || !record[0].equals(COMPLETED_RECORD))
+                continue;
+
+            for (LevelPack pack : packs) {
+                if (pack.getName().equals(record[1]))
+                    pack.stream()
+                            .filter(level -> level.getNumber().equals(record[2]))
+                            .forEach(level -> level.setCompleted(true));
+            }
+        }
+    }
+
+    public void levelCompleted(LevelPack pack, Level level) {
+        append(COMPLETED_RECORD, pack.getName(), level.getNumber());
+    }
+
+    public void settingChanged(String key, String value) {
+        append(SETTING_RECORD, key, value);
+    }
+
+    /**
+     * Writes all queued records and closes journal. Records, which are appended after that, are ignored.
+     */
+    @Override
+    public void close() {
+        writerThread.execute(this::closeOutput);
+        writerThread.shutdown();
+        try {
+            writerThread.awaitTermination(CLOSE_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void append(String... fields) {
+        String line = formatRecord(fields);
+
+        try {
+            writerThread.execute(() -> {
+                try {
+                    // Output could be lost, if it failed to reopen after compaction
+                    if (out == null)
+                        openOutput();
+                    out.write(line);
+                    out.flush();
+
+                    if (++recordsCount >= compactionThreshold)
+                        compact(parseRecords(new String(Files.readAllBytes(path), StandardCharsets.UTF_8)));
+                } catch (IOException | RuntimeException e) {
+                    e.printStackTrace();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Journal is closed, application is exiting
+        }
+    }
+
+    /**
+     * Replaces journal with journal, which has only needed records. Records are kept in order of their last
+     * occurrence. If compaction fails, old journal is kept, but it isn't opened for appending: it's reopened by the
+     * next record (see {@link #append(String...)}).
+     *
+     * @param records all records of journal
+     * @throws IOException if journal can't be written.
+     */
+    private void compact(List<String[]> records) throws IOException {
+        Map<String, String[]> lastRecords = new LinkedHashMap<>();
+        for (String[] record : records) {
+            // Setting is identified by key, level - by pack and number
+            String id = record[0].equals(SETTING_RECORD) && record.length == 3 ?
+                    record[0] + SEPARATOR + record[1] :
+                    formatRecord(record);
+            lastRecords.remove(id);
+            lastRecords.put(id, record);
+        }
+
+        closeOutput();
+
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                for (String[] record : lastRecords.values())
+                    writer.write(formatRecord(record));
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            recordsCount = lastRecords.size();
+            brokenLineStart = -1;
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        } finally {
+            // If records are unique, journal can't be compacted much, so next compaction is done later. If compaction
+            // has failed, it isn't retried on each record either
+            compactionThreshold = Math.max(MIN_COMPACTION_THRESHOLD, recordsCount * 2);
+        }
+
+        openOutput();
+    }
+
+    private void openOutput() throws IOException {
+        if (brokenLineStart >= 0) {
+            // Records mustn't be appended to the end of broken line
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(brokenLineStart);
+            }
+            brokenLineStart = -1;
+        }
+
+        out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path.toFile(), true),
+                StandardCharsets.UTF_8));
+    }
+
+    private void closeOutput() {
+        try {
+            if (out != null)
+                out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        out = null;
+    }
+
+    //////////////////////////////////// Format of records ////////////////////////////////////
+    private static String formatRecord(String... fields) {
+        StringBuilder builder = new StringBuilder();
+
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0)
+                builder.append(SEPARATOR);
+
+            String field = fields[i];
+            for (int j = 0; j < field.length(); j++) {
+                char c = field.charAt(j);
+                switch (c) {
+                    case '\\':
+                        builder.append("\\\\");
+                        break;
+
+                    case '\t':
+                        builder.append("\\t");
+                        break;
+
+                    case '\n':
+                        builder.append("\\n");
+                        break;
+
+                    case '\r':
+                        builder.append("\\r");
+                        break;
+
+                    default:
+                        builder.append(c);
+                }
+            }
+        }
+
+        return builder.append('\n').toString();
+    }
+
+    private static List<String[]> parseRecords(String text) {
+        List<String[]> records = new ArrayList<>();
+
+        for (String line : text.split("\n")) {
+            if (!line.isEmpty())
+                records.add(parseRecord(line));
+        }
+
+        return records;
+    }
+
+    private static String[] parseRecord(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char escaped = line.charAt(++i);
+                field.append(escaped == 't' ? '\t' : escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else
+                field.append(c);
+        }
+        fields.add(field.toString());
+
+        return fields.toArray(new String[0]);
+    }
+}
@@ -1,19 +1,17 @@
 package settings;
 
-import com.sun.org.apache.xerces.internal.dom.DeferredCommentImpl;
-import com.sun.org.apache.xerces.internal.dom.TextImpl;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
 import start.Main;
 import util.xml.XMLSerializable;
 import util.xml.XMLUtils;
 
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * Class for storing data about application settings.
@@ -34,6 +32,9 @@ public class Settings implements XMLSerializable {
             settingsStorage.replace(key, value);
         else
             settingsStorage.put(key, value);
+
+        if (changeListener != null)
+            changeListener.accept(key, value);
     }
     public String getSetting(String key) {
         return settingsStorage.get(key);
@@ -45,18 +46,25 @@ public class Settings implements XMLSerializable {
             return orElse;
     }
 
+    /** It's called after each {@link #setSetting(String, String)}, for example, to save change in {@link ProgressJournal}. */
+    private BiConsumer<String, String> changeListener;
+    public void setChangeListener(BiConsumer<String, String> changeListener) {
+        this.changeListener = changeListener;
+    }
+
     //////////////////////////////////// Serializing ////////////////////////////////////
+    /**
+     * {@inheritDoc}
+     */
     @Override
-    public String toXML() {
+    public void writeTo(Writer writer) throws IOException {
         final String indent = Main.XML_SERIALIZE_INDENT;
-        StringBuilder builder = new StringBuilder();
-
-        builder.append(generateXMLHeaders(indent));
-        for (String key : settingsStorage.keySet())
-            builder.append(settingToXML(new Setting(key, settingsStorage.get(key)), indent));
-        builder.append(generateXMLClosers(indent));
 
-        return builder.toString();
+        writer.write(generateXMLHeaders(indent));
+        for (Map.Entry<String, String> setting : settingsStorage.entrySet())
+            writer.write(settingToXML(new Setting(setting.getKey(), setting.getValue()), indent));
+        writer.write(generateXMLClosers(indent));
+        writer.flush();
     }
 
     private String settingToXML(Setting setting, String indent) {
@@ -107,29 +115,30 @@ public class Settings implements XMLSerializable {
      * @return loaded settings.
      */
     public static Settings fromXML(String filename) {
+        return fromXML(filename, Main.getResourcePath("settings/settings-schema.xsd"));
+    }
+
+    /**
+     * Works like {@link #fromXML(String)}, but uses specified schema. It's needed when settings are loaded outside of
+     * application (for example, by benchmarks).
+     *
+     * @param filename     filename
+     * @param pathToSchema path to XSD schema of settings
+     * @return loaded settings.
+     */
+    public static Settings fromXML(String filename, String pathToSchema) {
         try {
             Settings settingsStorage = new Settings();
 
             // Document with settings
             Document settingsDoc = XMLUtils.parseDocument(filename);
-            XMLUtils.validate(settingsDoc, Main.getResourcePath("settings/settings-schema.xsd"));
-
-            // "XPath factories"
-            XPathFactory xPathFactory = XPathFactory.newInstance();
-            XPath xPath = xPathFactory.newXPath();
-            // Root config element
-            Element configRootNode = (Element) xPath.evaluate("/settings/storage", settingsDoc, XPathConstants.NODE);
-
-            for (int i = 0; i < configRootNode.getChildNodes().getLength(); i++) {
-                Node settingNode = configRootNode.getChildNodes().item(i);
-
-                // Protection from texts
-                if (!(settingNode instanceof TextImpl) && !(settingNode instanceof DeferredCommentImpl)) {
-                    Element setting = (Element) settingNode;
+            XMLUtils.validate(settingsDoc, pathToSchema);
 
-                    if (setting.getTagName().equals("setting"))
-                        settingsStorage.setSetting(setting.getAttribute("key"), setting.getAttribute("value"));
-                }
+            // Schema allows <setting> tags only inside of <storage>, so there's no need to search <storage> itself
+            NodeList settings = settingsDoc.getDocumentElement().getElementsByTagName("setting");
+            for (int i = 0; i < settings.getLength(); i++) {
+                Element setting = (Element) settings.item(i);
+                settingsStorage.setSetting(setting.getAttribute("key"), setting.getAttribute("value"));
             }
 
             return settingsStorage;
@@ -1,6 +1,8 @@
 package start;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.control.ColorPicker;
 import javafx.scene.control.Labeled;
 import javafx.scene.paint.Color;
@@ -8,20 +10,29 @@ import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import levels.LevelPack;
 import mvc.controllers.MainMenuController;
+import mvc.help.FXController;
+import settings.ProgressJournal;
 import settings.Settings;
+import util.future.FutureTasks;
 import util.io.FileIO;
-import util.io.PathsUtil;
+import util.io.DirectoryResourceResolver;
+import util.io.ResourceResolver;
 import util.io.UTF8Control;
 import util.javafx.nodes.JFXNodes;
 import util.javafx.scenes.SceneContent;
-import util.javafx.scenes.SceneLoader;
+import util.javafx.scenes.SceneRegistry;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,6 +47,21 @@ public class Main extends Application {
 
     public static final String APP_FONT_NAME = "Arial";
 
+    private static final String MAIN_SCENE = "main.fxml";
+    private static final String SCENE_CACHE_SIZE_SETTING = "scene-cache-size";
+    private static final String SCENE_PREFETCH_SETTING = "scene-prefetch";
+    private static final int STARTUP_THREADS_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors());
+    /**
+     * Flag for printing report about startup and writing it as JSON. Path to JSON report can be specified after
+     * {@code =}, for example: {@code --startup-report=report.json}.
+     */
+    public static final String STARTUP_REPORT_FLAG = "--startup-report";
+    private static final String DEFAULT_STARTUP_REPORT = "startup-report.json";
+    /** Flag for exiting after startup, it's used to measure startup (see {@link StartupBenchmark}). */
+    public static final String EXIT_AFTER_STARTUP_FLAG = "--exit-after-startup";
+    /** Profiler is created when class is loaded, so it measures the whole startup. */
+    private static final StartupProfiler startupProfiler = new StartupProfiler();
+
     private static final int DEFAULT_WINDOW_WIDTH = 800;
     private static final int DEFAULT_WINDOW_HEIGHT = 557;
     private static final int MIN_WINDOW_WIDTH = 767;
@@ -69,9 +95,29 @@ public class Main extends Application {
      * {@code key} - name of file
      * {@code value} - {@link SceneContent} object
      */
-    private static HashMap<String, SceneContent> loadedScenes = new HashMap<>(0);
+    private static volatile SceneRegistry scenes;
+    /**
+     * Scenes, which can be opened from scene (key). They're prefetched, when scene is shown (if setting
+     * {@value #SCENE_PREFETCH_SETTING} isn't {@code false}).
+     */
+    private static final Map<String, String[]> NEXT_SCENES = new HashMap<>();
+    static {
+        NEXT_SCENES.put(MAIN_SCENE, new String[] {"campaign-select.fxml", "settings-menu.fxml"});
+        NEXT_SCENES.put("campaign-select.fxml", new String[] {"level-select.fxml"});
+        NEXT_SCENES.put("level-select.fxml", new String[] {"game-field.fxml"});
+        NEXT_SCENES.put("game-field.fxml", new String[] {"level-completed-dialog.fxml"});
+    }
+    /**
+     * It's completed, when all startup steps are finished. Main menu is shown before it, so other scenes are shown only
+     * after it.
+     */
+    private static CompletableFuture<Void> startupFinished = CompletableFuture.completedFuture(null);
 
-    private static String resourcesRoot;
+    /** Resolver for resources, it's created once at startup. */
+    private static ResourceResolver resources;
+    public static ResourceResolver getResources() {
+        return resources;
+    }
     /**
      * Field for build version. It looks like this:
      * <p>
@@ -94,6 +140,12 @@ public class Main extends Application {
         return appSettings;
     }
 
+    /** Journal, where progress and changed settings are saved when they change. */
+    private static ProgressJournal progressJournal;
+    public static ProgressJournal getProgressJournal() {
+        return progressJournal;
+    }
+
     /** Custom colors for <b>ALL</b> {@link ColorPicker color pickers}. */
     private static List<Color> customColorPickerColors;
     public static List<Color> getCustomColorPickerColors() {
@@ -103,13 +155,15 @@ public class Main extends Application {
     private static SceneContent previousSceneContent;
 
     /**
-     * Returns relative path to resource. At start adds constant {@link #resourcesRoot}, and at the end - resource name.
+     * Returns real path to resource. Path is resolved by {@link #getResources() resource resolver}, so it's cached after
+     * the first call. If name of resource ends with slash (it's directory), path ends with file separator.
      *
      * @param pathSuffix name of resource. It will be added at the end.
      * @return real path to resource.
      */
     public static String getResourcePath(String pathSuffix) {
-        return PathsUtil.realPath(Main.resourcesRoot + pathSuffix);
+        String path = resources.getPath(pathSuffix).toString();
+        return pathSuffix.endsWith("/") ? path + File.separator : path;
     }
 
     /**
@@ -121,11 +175,7 @@ public class Main extends Application {
      * @return real path to resource.
      */
     public static URL getResourceURL(String pathSuffix) {
-        try {
-            return new URL("file", null, PathsUtil.realPath(Main.resourcesRoot + pathSuffix));
-        } catch (MalformedURLException e) {
-            throw new RuntimeException(e);
-        }
+        return resources.getURL(pathSuffix);
     }
 
     public static void main(String[] args) throws Exception {
@@ -150,10 +200,21 @@ public class Main extends Application {
      * @throws RuntimeException when loading fails.
      */
     public static void changeScene(String sceneIdentifier, String windowTitle) {
+        // Scene can be requested right after start, when its dependencies aren't loaded yet. Then scene is changed
+        // after startup
+        if (!startupFinished.isDone()) {
+            startupFinished.thenRunAsync(() -> showScene(sceneIdentifier, windowTitle), FutureTasks.JAVAFX_THREAD);
+            return;
+        }
+
+        showScene(sceneIdentifier, windowTitle);
+    }
+
+    private static void showScene(String sceneIdentifier, String windowTitle) {
         try {
             if (previousSceneContent != null)
                 previousSceneContent.controller.shutdown();
-            SceneContent sceneContent = loadedScenes.get(sceneIdentifier);
+            SceneContent sceneContent = scenes.get(sceneIdentifier);
             previousSceneContent = sceneContent;
 
             primaryStage.setTitle(getLocaleStr("header.base") + windowTitle);
@@ -170,43 +231,147 @@ public class Main extends Application {
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+
+        if (!appSettings.getSettingOrElse(SCENE_PREFETCH_SETTING, "true").equals("false") &&
+                NEXT_SCENES.containsKey(sceneIdentifier))
+            scenes.prefetch(NEXT_SCENES.get(sceneIdentifier));
     }
 
     /**
-     * Returns scene's string content (in fact - content of {@code .fxml} file).
+     * Returns scene's string content (in fact - content of {@code .fxml} file). Scene is loaded, if it isn't loaded
+     * yet.
      *
      * @param sceneIdentifier name of {@code .fxml} file in which scene is (includes {@code .fxml}).
      * @return string content of selected scene.
      */
     public static SceneContent getSceneContent(String sceneIdentifier) {
-        return loadedScenes.get(sceneIdentifier);
+        return scenes.get(sceneIdentifier);
     }
 
     /**
+     * Starts application. Startup steps are run in background threads, each step - as soon as steps, which it depends
+     * on, are finished. Main menu is shown when its own dependencies (settings, locale and its scene) are ready, other
+     * scenes are loaded only when they're opened (see {@link SceneRegistry}).
+     *
+     * <ul>
+     *     <li>settings, campaigns, journal of progress and version are loaded at the same time;</li>
+     *     <li>saved settings are applied after settings and journal, saved progress - after campaigns and journal;</li>
+     *     <li>locale and colors of color pickers - after saved settings are applied;</li>
+     *     <li>main menu - after locale and version;</li>
+     *     <li>other scenes can be shown after all steps.</li>
+     * </ul>
+     *
      * {@inheritDoc}
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
-        setupResourcesRoot();
-        loadAppSettings();
-        setupCustomColorPickerColors();
-        loadCampaigns();
-        loadProductVersion();
-        registerShutdownHooks();
-        loadResourceBundles();
-        setupPrimaryStage(primaryStage);
-        loadScenes();
+        startupProfiler.measure("setupResourcesRoot", this::setupResourcesRoot).run();
+        startupProfiler.measure("setupPrimaryStage", () -> setupPrimaryStage(primaryStage)).run();
 
-        changeScene("main.fxml");
+        ExecutorService background = Executors.newFixedThreadPool(STARTUP_THREADS_COUNT, runnable -> {
+            Thread thread = new Thread(runnable, "Startup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Steps without dependencies
+        CompletableFuture<Void> settingsLoaded = runStep("loadAppSettings", this::loadAppSettings, background);
+        CompletableFuture<Void> campaignsLoaded = runStep("loadCampaigns", this::loadCampaigns, background);
+        CompletableFuture<Void> journalOpened = runStep("openProgressJournal", this::openProgressJournal, background);
+        CompletableFuture<Void> versionLoaded = runStep("loadProductVersion", this::loadProductVersion, background);
+
+        // Saved progress is applied over loaded files
+        CompletableFuture<Void> settingsReady = runStep("replaySettings", this::replaySettings, background,
+                settingsLoaded, journalOpened);
+        CompletableFuture<Void> campaignsReady = runStep("replayCampaigns", this::replayCampaigns, background,
+                campaignsLoaded, journalOpened);
+        CompletableFuture<Void> hooksRegistered = runStep("registerShutdownHooks", this::registerShutdownHooks,
+                background, journalOpened);
+        CompletableFuture<Void> colorsReady = runStep("setupCustomColorPickerColors",
+                this::setupCustomColorPickerColors, background, settingsReady);
+        CompletableFuture<Void> bundlesLoaded = runStep("loadResourceBundles", this::loadResourceBundles, background,
+                settingsReady);
+
+        // Main menu needs only locale and version. Its file is loaded in background, then it's shown
+        CompletableFuture<Void> scenesReady = runStep("setupScenes", this::setupScenes, background, settingsReady);
+        CompletableFuture<Void> mainMenuShown = CompletableFuture.allOf(scenesReady, bundlesLoaded, versionLoaded)
+                .thenComposeAsync(ignored -> scenes.prefetch(MAIN_SCENE), FutureTasks.JAVAFX_THREAD)
+                .thenRunAsync(startupProfiler.measure("showMainScene", () -> showScene(MAIN_SCENE, "")),
+                        FutureTasks.JAVAFX_THREAD);
+
+        startupFinished = CompletableFuture.allOf(mainMenuShown, colorsReady, campaignsReady, hooksRegistered);
+        CompletableFuture<Void> firstFrameShown = mainMenuShown.thenComposeAsync(ignored -> waitFirstFrame(),
+                FutureTasks.JAVAFX_THREAD);
+        CompletableFuture.allOf(startupFinished, firstFrameShown).whenComplete((result, e) -> {
+            background.shutdown();
+            if (e != null) {
+                e.printStackTrace();
+                Platform.exit();
+            } else
+                reportStartup();
+        });
+    }
+
+    /**
+     * @return future, which is completed on the next pulse, when shown scene is rendered.
+     */
+    private static CompletableFuture<Void> waitFirstFrame() {
+        CompletableFuture<Void> firstFrame = new CompletableFuture<>();
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                startupProfiler.mark("firstFrame");
+                firstFrame.complete(null);
+            }
+        }.start();
+
+        return firstFrame;
+    }
+
+    /**
+     * Prints and writes report about startup if it's requested by {@link #STARTUP_REPORT_FLAG}, and exits if it's
+     * requested by {@link #EXIT_AFTER_STARTUP_FLAG}.
+     */
+    private void reportStartup() {
+        startupProfiler.finish();
+
+        List<String> args = getParameters().getRaw();
+        for (String arg : args) {
+            if (arg.equals(STARTUP_REPORT_FLAG) || arg.startsWith(STARTUP_REPORT_FLAG + "=")) {
+                String reportPath = arg.equals(STARTUP_REPORT_FLAG) ?
+                        DEFAULT_STARTUP_REPORT :
+                        arg.substring(STARTUP_REPORT_FLAG.length() + 1);
+
+                System.out.print(startupProfiler.toTable());
+                try {
+                    startupProfiler.writeJSON(Paths.get(reportPath));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        if (args.contains(EXIT_AFTER_STARTUP_FLAG))
+            System.exit(0);
+    }
+
+    /**
+     * Runs startup step after its dependencies. Time of step is measured by {@link StartupProfiler}.
+     *
+     * @param name         name of step in startup report
+     * @param step         step
+     * @param executor     executor for step
+     * @param dependencies steps, which must be finished before this step
+     * @return future of step.
+     */
+    private static CompletableFuture<Void> runStep(String name, Runnable step, Executor executor,
+                                                   CompletableFuture<?>... dependencies) {
+        return CompletableFuture.allOf(dependencies).thenRunAsync(startupProfiler.measure(name, step), executor);
     }
 
     private void setupResourcesRoot() {
-        String thisClassFile = Main.class.getProtectionDomain().getCodeSource().getLocation().getFile();
-        StringBuilder builder = new StringBuilder();
-        if (thisClassFile.endsWith(".jar"))
-            builder.append("../");
-        builder.append("../../resources/");
-        resourcesRoot = builder.toString();
+        resources = new DirectoryResourceResolver(DirectoryResourceResolver.resourcesRootOf(Main.class));
     }
 
     private void loadAppSettings() {
@@ -233,6 +398,34 @@ public class Main extends Application {
         extendedCampaign = LevelPack.fromXML(Main.getResourcePath("levels/extended.xml"));
     }
 
+    private void setupScenes() {
+        int cacheSize = Integer.parseInt(appSettings.getSettingOrElse(SCENE_CACHE_SIZE_SETTING, "4"));
+        SceneRegistry registry = new SceneRegistry(getResourcePath("fxml/"), cacheSize, Main::setupSceneFonts);
+        // Main menu is needed by exit dialog at any moment, so it mustn't be evicted (and reloaded behind dialogs)
+        registry.pin(MAIN_SCENE);
+        scenes = registry;
+    }
+
+    private void openProgressJournal() {
+        try {
+            progressJournal = ProgressJournal.open(resources.getPath("settings/progress.journal"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Applies saved settings from journal. After that, each changed setting is saved to journal.
+     */
+    private void replaySettings() {
+        progressJournal.replaySettings(appSettings);
+        appSettings.setChangeListener(progressJournal::settingChanged);
+    }
+
+    private void replayCampaigns() {
+        progressJournal.replayLevels(classicCampaign, extendedCampaign);
+    }
+
     private void loadProductVersion() {
         try {
             productVersion = "v. " + FileIO.load(Main.getResourcePath(".build_version"));
@@ -243,15 +436,16 @@ public class Main extends Application {
     }
 
     private void registerShutdownHooks() {
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            FileIO.write(appSettings.toXML(), Main.getResourcePath("settings/settings.xml"));
-            FileIO.write(classicCampaign.toXML(), Main.getResourcePath("levels/classic.xml"));
-            FileIO.write(extendedCampaign.toXML(), Main.getResourcePath("levels/extended.xml"));
-        }));
+        // Progress is already in journal, only queued records must be written
+        Runtime.getRuntime().addShutdownHook(new Thread(progressJournal::close));
     }
 
-    private void loadResourceBundles() throws MalformedURLException {
-        getLocaleRB();
+    private void loadResourceBundles() {
+        try {
+            getLocaleRB();
+        } catch (MalformedURLException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     private void getLocaleRB() throws MalformedURLException {
@@ -280,7 +474,12 @@ public class Main extends Application {
         primaryStage.setHeight(DEFAULT_WINDOW_HEIGHT);
 
         primaryStage.setOnCloseRequest(event -> {
-            MainMenuController controller = (MainMenuController) loadedScenes.get("main.fxml").controller;
+            // Main menu isn't shown yet, so there's no progress to lose and no exit dialog - window is just closed
+            SceneRegistry scenes = Main.scenes;
+            if (scenes == null || !scenes.isLoaded(MAIN_SCENE))
+                return;
+
+            MainMenuController controller = (MainMenuController) scenes.get(MAIN_SCENE).controller;
 
             Optional result = controller.getExitDialog().showAndWait();
 
@@ -293,22 +492,24 @@ public class Main extends Application {
         });
     }
 
-    private void loadScenes() throws IOException {
-        loadedScenes = (HashMap<String, SceneContent>) SceneLoader.loadAllFromDirectory(Main.getResourcePath("fxml/"));
+    /**
+     * Resets fonts of loaded scene to {@link #APP_FONT_NAME}. It's called once for each loaded scene.
+     *
+     * @param sceneContent loaded scene
+     */
+    private static void setupSceneFonts(SceneContent sceneContent) {
         // Resetting fonts
-        for (SceneContent sceneContent : loadedScenes.values()) {
-            JFXNodes.forAllChildren(sceneContent.root, node -> {
-                if (node instanceof Labeled) {
-                    Labeled labeled = (Labeled) node;
-                    Font newFont = new Font(APP_FONT_NAME, labeled.getFont().getSize());
-                    // Restoring font styles using CSS
-                    if (labeled.getFont().getStyle().contains("Bold"))
-                        labeled.setStyle(labeled.getStyle() + "\n" + "-fx-font-weight: bold;");
-                    if (labeled.getFont().getStyle().contains("Italic"))
-                        labeled.setStyle(labeled.getStyle() + "\n" + "-fx-font-style: italic;");
-                    labeled.setFont(newFont);
-                }
-            });
-        }
+        JFXNodes.forAllChildren(sceneContent.root, node -> {
+            if (node instanceof Labeled) {
+                Labeled labeled = (Labeled) node;
+                Font newFont = new Font(APP_FONT_NAME, labeled.getFont().getSize());
+                // Restoring font styles using CSS
+                if (labeled.getFont().getStyle().contains("Bold"))
+                    labeled.setStyle(labeled.getStyle() + "\n" + "-fx-font-weight: bold;");
+                if (labeled.getFont().getStyle().contains("Italic"))
+                    labeled.setStyle(labeled.getStyle() + "\n" + "-fx-font-style: italic;");
+                labeled.setFont(newFont);
+            }
+        });
     }
 }
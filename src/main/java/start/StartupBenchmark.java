@@ -0,0 +1,210 @@
+package start;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Launches application several times with {@link Main#STARTUP_REPORT_FLAG} and {@link Main#EXIT_AFTER_STARTUP_FLAG},
+ * and compares medians of {@link StartupProfiler startup reports} with baseline. It's run by Ant target
+ * {@code startup-benchmark}:
+ *
+ * <pre><code>
+ * java -cp app start.StartupBenchmark &lt;runs&gt; &lt;baseline.json&gt; [tolerance in percents] [--update-baseline]
+ * </code></pre>
+ *
+ * <p>Compared metrics: total startup time, time of the first frame, duration of each phase and count of loaded classes.
+ * Metric is regression if its median is greater than baseline by more than tolerance (and, for times, by more than
+ * {@value #NOISE_MILLIS} ms). If there're regressions, exit code is {@code 1}. If there's no baseline yet, or flag
+ * {@code --update-baseline} is specified, medians are written as new baseline.</p>
+ *
+ * <p>Application is launched by the same Java with the same classpath. Additional JVM arguments (for example, for
+ * headless JavaFX platform) are taken from system property {@code startup.jvmargs}, they're separated by spaces.</p>
+ */
+public class StartupBenchmark {
+    private static final double DEFAULT_TOLERANCE_PERCENTS = 15;
+    /** Differences of times, which are less than this, are noise. */
+    private static final double NOISE_MILLIS = 3;
+    private static final long RUN_TIMEOUT_SECONDS = 120;
+    private static final String UPDATE_BASELINE_FLAG = "--update-baseline";
+
+    private static final Pattern TOP_LEVEL_METRIC = Pattern.compile("^ {2}\"(\\w+)\": ([0-9.]+),?$",
+            Pattern.MULTILINE);
+    private static final Pattern PHASE = Pattern.compile("\\{\"name\": \"([^\"]+)\", \"thread\": \"[^\"]*\", " +
+            "\"startMillis\": ([0-9.]+), \"durationMillis\": ([0-9.]+)");
+    private static final Pattern BASELINE_METRIC = Pattern.compile("\"([^\"]+)\": ([0-9.]+)");
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        boolean updateBaseline = arguments.remove(UPDATE_BASELINE_FLAG);
+        if (arguments.size() < 2 || arguments.size() > 3) {
+            System.err.println("Usage: StartupBenchmark <runs> <baseline.json> [tolerance in percents] " +
+                    "[" + UPDATE_BASELINE_FLAG + "]");
+            System.exit(2);
+        }
+
+        int runs = Integer.parseInt(arguments.get(0));
+        Path baselinePath = Paths.get(arguments.get(1));
+        double tolerance = arguments.size() == 3 ? Double.parseDouble(arguments.get(2)) : DEFAULT_TOLERANCE_PERCENTS;
+
+        Map<String, List<Double>> samples = new LinkedHashMap<>();
+        for (int i = 0; i < runs; i++) {
+            Map<String, Double> metrics = runOnce();
+            System.out.printf(Locale.ROOT, "Run %d/%d: %.1f ms%n", i + 1, runs, metrics.get("totalMillis"));
+            for (Map.Entry<String, Double> metric : metrics.entrySet())
+                samples.computeIfAbsent(metric.getKey(), key -> new ArrayList<>()).add(metric.getValue());
+        }
+
+        Map<String, Double> medians = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Double>> metric : samples.entrySet())
+            medians.put(metric.getKey(), median(metric.getValue()));
+
+        if (updateBaseline || !Files.exists(baselinePath)) {
+            writeMetrics(medians, baselinePath);
+            System.out.println("Baseline is written to " + baselinePath);
+            return;
+        }
+
+        if (!compare(readMetrics(baselinePath), medians, tolerance))
+            System.exit(1);
+    }
+
+    /**
+     * Launches application and reads its report.
+     *
+     * @return metrics of startup.
+     */
+    private static Map<String, Double> runOnce() throws IOException, InterruptedException {
+        Path report = Files.createTempFile("startup-report", ".json");
+        try {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            String jvmArgs = System.getProperty("startup.jvmargs", "").trim();
+            if (!jvmArgs.isEmpty())
+                command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(Main.class.getName());
+            command.add(Main.STARTUP_REPORT_FLAG + "=" + report.toAbsolutePath());
+            command.add(Main.EXIT_AFTER_STARTUP_FLAG);
+
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(new File(report.toString() + ".log"))
+                    .start();
+            if (!process.waitFor(RUN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IllegalStateException("Application didn\'t exit in " + RUN_TIMEOUT_SECONDS + " seconds, " +
+                        "see " + report + ".log");
+            }
+            if (process.exitValue() != 0 || Files.size(report) == 0)
+                throw new IllegalStateException("Application failed with code " + process.exitValue() + ", see " +
+                        report + ".log");
+
+            Files.deleteIfExists(Paths.get(report.toString() + ".log"));
+            return parseReport(new String(Files.readAllBytes(report), StandardCharsets.UTF_8));
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    private static Map<String, Double> parseReport(String json) {
+        Map<String, Double> metrics = new LinkedHashMap<>();
+
+        Matcher topLevel = TOP_LEVEL_METRIC.matcher(json);
+        while (topLevel.find()) {
+            String name = topLevel.group(1);
+            // Time before profiler is created depends on machine's load, not on application
+            if (name.equals("totalMillis") || name.equals("loadedClasses"))
+                metrics.put(name, Double.parseDouble(topLevel.group(2)));
+        }
+
+        Matcher phase = PHASE.matcher(json);
+        while (phase.find()) {
+            double duration = Double.parseDouble(phase.group(3));
+            // Marks have no duration, so their time is compared
+            if (duration == 0)
+                metrics.put(phase.group(1) + ".startMillis", Double.parseDouble(phase.group(2)));
+            else
+                metrics.put(phase.group(1) + ".durationMillis", duration);
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Prints comparison of medians with baseline.
+     *
+     * @return {@code true} if there're no regressions.
+     */
+    private static boolean compare(Map<String, Double> baseline, Map<String, Double> medians, double tolerance) {
+        boolean passed = true;
+
+        System.out.printf(Locale.ROOT, "%-48s %12s %12s %9s%n", "Metric", "Baseline", "Median", "Change");
+        for (Map.Entry<String, Double> metric : baseline.entrySet()) {
+            Double median = medians.get(metric.getKey());
+            if (median == null) {
+                System.out.printf(Locale.ROOT, "%-48s %12.1f %12s%n", metric.getKey(), metric.getValue(), "-");
+                continue;
+            }
+
+            double base = metric.getValue();
+            double change = base == 0 ? 0 : (median - base) / base * 100;
+            boolean isTime = metric.getKey().endsWith("Millis");
+            boolean regression = change > tolerance && (!isTime || median - base > NOISE_MILLIS);
+            passed &= !regression;
+
+            System.out.printf(Locale.ROOT, "%-48s %12.1f %12.1f %+8.1f%%%s%n", metric.getKey(), base, median, change,
+                    regression ? "  REGRESSION" : "");
+        }
+
+        System.out.println(passed ? "Startup is within " + tolerance + "% of baseline" : "Startup regressed");
+        return passed;
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    private static Map<String, Double> readMetrics(Path path) throws IOException {
+        Map<String, Double> metrics = new LinkedHashMap<>();
+
+        Matcher matcher = BASELINE_METRIC.matcher(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        while (matcher.find())
+            metrics.put(matcher.group(1), Double.parseDouble(matcher.group(2)));
+
+        return metrics;
+    }
+
+    private static void writeMetrics(Map<String, Double> metrics, Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("{\n");
+
+            int i = 0;
+            for (Map.Entry<String, Double> metric : metrics.entrySet()) {
+                writer.write(String.format(Locale.ROOT, "  \"%s\": %.3f%s%n", metric.getKey(), metric.getValue(),
+                        ++i < metrics.size() ? "," : ""));
+            }
+
+            writer.write("}\n");
+        }
+    }
+}
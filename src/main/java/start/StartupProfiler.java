@@ -0,0 +1,182 @@
+package start;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures phases of application startup. Time is measured by {@link System#nanoTime()} (it's monotonic), each phase
+ * also remembers count of loaded classes at its end. GC counts are taken for whole startup. Phases can run in parallel,
+ * so profiler is thread-safe.
+ *
+ * <p>Report is printed as table ({@link #toTable()}) or written as JSON ({@link #writeJSON(Path)}):</p>
+ * <pre><code>
+ * {
+ *   "jvmStartMillis": 153,
+ *   "totalMillis": 812.7,
+ *   "loadedClasses": 3120,
+ *   "gcCount": 2,
+ *   "gcTimeMillis": 14,
+ *   "phases": [
+ *     {"name": "loadAppSettings", "thread": "Startup", "startMillis": 1.104, "durationMillis": 40.513,
+ *      "loadedClasses": 1710},
+ *     ...
+ *   ]
+ * }
+ * </code></pre>
+ *
+ * <p>{@code startMillis} of phases is counted from creation of profiler, {@code jvmStartMillis} is time between start
+ * of JVM and creation of profiler, {@code totalMillis} - time between creation of profiler and {@link #finish()}.</p>
+ *
+ * @see StartupBenchmark
+ */
+public class StartupProfiler {
+    private final long origin = System.nanoTime();
+    private final long jvmUptimeAtOrigin = ManagementFactory.getRuntimeMXBean().getUptime();
+    private final List<Phase> phases = new ArrayList<>();
+    private long finishTime = -1;
+    private long finishLoadedClasses = -1;
+
+    /**
+     * Wraps step, so its time is measured as phase.
+     *
+     * @param name name of phase
+     * @param step step
+     * @return measured step.
+     */
+    public Runnable measure(String name, Runnable step) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                step.run();
+            } finally {
+                addPhase(name, start, System.nanoTime());
+            }
+        };
+    }
+
+    /**
+     * Adds phase, which is already finished.
+     *
+     * @param name  name of phase
+     * @param start start of phase, it's result of {@link System#nanoTime()}
+     * @param end   end of phase, it's result of {@link System#nanoTime()}
+     */
+    public synchronized void addPhase(String name, long start, long end) {
+        phases.add(new Phase(name, Thread.currentThread().getName(), start - origin, end - start,
+                ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount()));
+    }
+
+    /**
+     * Adds phase without duration, for example, moment when the first frame is shown.
+     *
+     * @param name name of phase
+     */
+    public void mark(String name) {
+        long now = System.nanoTime();
+        addPhase(name, now, now);
+    }
+
+    /**
+     * Finishes measuring. Phases, which are added after it, are still in report, but total time isn't changed.
+     */
+    public synchronized void finish() {
+        if (finishTime == -1) {
+            finishTime = System.nanoTime();
+            finishLoadedClasses = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+        }
+    }
+
+    //////////////////////////////////// Report ////////////////////////////////////
+    public synchronized String toTable() {
+        StringBuilder builder = new StringBuilder();
+
+        builder.append(String.format(Locale.ROOT, "Startup: %.1f ms (JVM start: %d ms before), %d classes, " +
+                        "%d GCs (%d ms)%n", millis(totalTime()), jvmUptimeAtOrigin, totalLoadedClasses(), gcCount(),
+                gcTime()));
+        builder.append(String.format(Locale.ROOT, "%-32s %-24s %10s %10s %8s%n", "Phase", "Thread", "Start, ms",
+                "Time, ms", "Classes"));
+        for (Phase phase : phases) {
+            builder.append(String.format(Locale.ROOT, "%-32s %-24s %10.1f %10.1f %8d%n", phase.name, phase.thread,
+                    millis(phase.start), millis(phase.duration), phase.loadedClasses));
+        }
+
+        return builder.toString();
+    }
+
+    public synchronized void writeJSON(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(String.format(Locale.ROOT, "{%n" +
+                            "  \"jvmStartMillis\": %d,%n" +
+                            "  \"totalMillis\": %.3f,%n" +
+                            "  \"loadedClasses\": %d,%n" +
+                            "  \"gcCount\": %d,%n" +
+                            "  \"gcTimeMillis\": %d,%n" +
+                            "  \"phases\": [%n",
+                    jvmUptimeAtOrigin, millis(totalTime()), totalLoadedClasses(), gcCount(), gcTime()));
+
+            for (int i = 0; i < phases.size(); i++) {
+                Phase phase = phases.get(i);
+                writer.write(String.format(Locale.ROOT, "    {\"name\": \"%s\", \"thread\": \"%s\", " +
+                                "\"startMillis\": %.3f, \"durationMillis\": %.3f, \"loadedClasses\": %d}%s%n",
+                        phase.name, phase.thread, millis(phase.start), millis(phase.duration), phase.loadedClasses,
+                        i + 1 < phases.size() ? "," : ""));
+            }
+
+            writer.write(String.format("  ]%n}%n"));
+        }
+    }
+
+    private long totalTime() {
+        return (finishTime == -1 ? System.nanoTime() : finishTime) - origin;
+    }
+
+    private long totalLoadedClasses() {
+        return finishLoadedClasses == -1 ?
+                ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount() :
+                finishLoadedClasses;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+            count += Math.max(0, bean.getCollectionCount());
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+            time += Math.max(0, bean.getCollectionTime());
+        return time;
+    }
+
+    private static class Phase {
+        final String name;
+        final String thread;
+        /** Start of phase from creation of profiler, in nanoseconds. */
+        final long start;
+        final long duration;
+        /** Total count of loaded classes at the end of phase. */
+        final long loadedClasses;
+
+        Phase(String name, String thread, long start, long duration, long loadedClasses) {
+            this.name = name;
+            this.thread = thread;
+            this.start = start;
+            this.duration = duration;
+            this.loadedClasses = loadedClasses;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package util.collections;
+
+import java.util.Arrays;
+
+/**
+ * Stack of primitive {@code int} values. Unlike {@link Stack}, it doesn't box values and doesn't allocate anything
+ * when popping or clearing - inner array only grows.
+ */
+public class IntStack {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] stackData;
+    private int length = 0;
+
+    /**
+     * Creates new stack with default capacity.
+     */
+    public IntStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates new stack.
+     *
+     * @param initialCapacity count of values, that can be pushed before inner array grows
+     */
+    public IntStack(int initialCapacity) {
+        stackData = new int[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Adds value in the end.
+     *
+     * @param value value to add
+     */
+    public void push(int value) {
+        if (length == stackData.length)
+            stackData = Arrays.copyOf(stackData, stackData.length * 2);
+        stackData[length++] = value;
+    }
+
+    /**
+     * Removes last value from the end.
+     *
+     * @return last removed value.
+     * @throws IllegalStateException if stack is empty.
+     */
+    public int pop() {
+        if (length == 0)
+            throw new IllegalStateException("Stack is empty");
+        return stackData[--length];
+    }
+
+    /**
+     * Works like {@link #pop()}, but this method returns last value without removing it.
+     *
+     * @return last value.
+     * @throws IllegalStateException if stack is empty.
+     */
+    public int last() {
+        if (length == 0)
+            throw new IllegalStateException("Stack is empty");
+        return stackData[length - 1];
+    }
+
+    /**
+     * Returns value by its index, the first pushed value has index {@code 0}.
+     *
+     * @param index index of value
+     * @return value with specified index.
+     * @throws IndexOutOfBoundsException if index isn't in range {@code [0; length())}.
+     */
+    public int get(int index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+        return stackData[index];
+    }
+
+    /**
+     * Used for getting size of stack.
+     *
+     * @return size of stack.
+     */
+    public int length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Removes all values. Inner array isn't shrunk, so stack can be reused without allocations.
+     */
+    public void clear() {
+        length = 0;
+    }
+}
@@ -2,24 +2,55 @@ package util.future;
 
 import javafx.application.Platform;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Utility-class with functions for future tasks.
+ *
+ * <p>All delays are counted by one shared daemon thread, so count of threads doesn't grow with count of calls, and this
+ * thread doesn't prevent JVM from exiting. Tasks themselves are always run on JavaFX Application Thread.</p>
  */
 public class FutureTasks {
-    public static void runLaterWithPermissions(Runnable task) {
-        runLaterWithPermissions(task, 0);
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "FutureTasks-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** Executor, which runs tasks on JavaFX Application Thread, for example, for {@link CompletableFuture} stages. */
+    public static final Executor JAVAFX_THREAD = Platform::runLater;
+
+    /**
+     * Runs task on JavaFX Application Thread as soon as possible, but not now (even if it's called from JavaFX
+     * Application Thread). For example, it allows to show new stage after animation pulse.
+     *
+     * @param task task to run
+     * @return handle, which can cancel task.
+     */
+    public static ScheduledTask runLaterWithPermissions(Runnable task) {
+        return runLaterWithPermissions(task, 0);
     }
 
-    public static void runLaterWithPermissions(Runnable task, long delay) {
-        Timer timer = new Timer();
+    /**
+     * Runs task on JavaFX Application Thread after delay. Delay is waited on shared scheduler thread, JavaFX Application
+     * Thread isn't blocked.
+     *
+     * @param task  task to run
+     * @param delay delay in milliseconds
+     * @return handle, which can cancel task.
+     */
+    public static ScheduledTask runLaterWithPermissions(Runnable task, long delay) {
+        ScheduledTask scheduledTask = new ScheduledTask(task);
 
-        timer.schedule(new TimerTask() {
-            public void run() {
-                Platform.runLater(task);
-            }
-        }, delay);
+        if (delay <= 0)
+            Platform.runLater(scheduledTask);
+        else
+            scheduledTask.setFuture(SCHEDULER.schedule(() -> Platform.runLater(scheduledTask), delay,
+                    TimeUnit.MILLISECONDS));
+        return scheduledTask;
     }
 }
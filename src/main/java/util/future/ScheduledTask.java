@@ -0,0 +1,47 @@
+package util.future;
+
+import java.util.concurrent.Future;
+
+/**
+ * Handle of task, which is scheduled by {@link FutureTasks}. Task can be cancelled until it starts running on JavaFX
+ * Application Thread - even if delay has already passed and task is waiting in queue of
+ * {@link javafx.application.Platform#runLater(Runnable)}.
+ */
+public class ScheduledTask implements Runnable {
+    private final Runnable task;
+    /** Delay of task on scheduler thread, it's {@code null} if task has no delay. */
+    private volatile Future<?> future;
+    private volatile boolean cancelled = false;
+
+    ScheduledTask(Runnable task) {
+        this.task = task;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * Cancels task. Does nothing if task has already started.
+     */
+    public void cancel() {
+        cancelled = true;
+
+        Future<?> future = this.future;
+        if (future != null)
+            future.cancel(false);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Runs task, if it isn't cancelled. Called by {@link FutureTasks} on JavaFX Application Thread.
+     */
+    @Override
+    public void run() {
+        if (!cancelled)
+            task.run();
+    }
+}
@@ -0,0 +1,77 @@
+package util.io;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ResourceResolver} for resources, which are in classpath (in directory with classes or in jar). Such resources
+ * are read-only, so they don't have paths in file system.
+ *
+ * <pre><code>
+ * ResourceResolver resources = new ClasspathResourceResolver(Main.class.getClassLoader(), "resources/");
+ * InputStream levels = resources.openStream("levels/classic.xml");
+ * </code></pre>
+ */
+public class ClasspathResourceResolver implements ResourceResolver {
+    private final ClassLoader classLoader;
+    /** Path of resources root in classpath, it's empty or ends with slash. */
+    private final String prefix;
+
+    private final Map<String, URL> urls = new ConcurrentHashMap<>();
+
+    /**
+     * Creates resolver.
+     *
+     * @param classLoader class loader to search resources
+     * @param prefix      path of directory with resources in classpath, for example {@code "resources/"}. Can be empty
+     */
+    public ClasspathResourceResolver(ClassLoader classLoader, String prefix) {
+        this.classLoader = classLoader;
+        this.prefix = prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + '/';
+    }
+
+    /**
+     * Always throws exception: resources from classpath may be packed, so they don't have paths.
+     *
+     * @param name name of resource
+     * @return nothing.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public Path getPath(String name) {
+        throw new UnsupportedOperationException("Resources from classpath don\'t have paths in file system");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public URL getURL(String name) {
+        URL url = urls.get(name);
+        if (url == null) {
+            url = classLoader.getResource(prefix + name);
+            if (url == null)
+                throw new IllegalArgumentException("Resource \"" + prefix + name + "\" not found in classpath");
+            urls.putIfAbsent(name, url);
+        }
+
+        return url;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream openStream(String name) throws IOException {
+        try {
+            return getURL(name).openStream();
+        } catch (IllegalArgumentException e) {
+            throw new FileNotFoundException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ResourceResolver} for resources, which are in directory of file system. It's used by application, because
+ * settings and level packs are written back to resources.
+ *
+ * <p>Application is built so, that directory {@code resources} lies near directory with classes (or near directory with
+ * jar), see {@link #resourcesRootOf(Class)}.</p>
+ */
+public class DirectoryResourceResolver implements ResourceResolver {
+    private final Path root;
+    public Path getRoot() {
+        return root;
+    }
+
+    private final Map<String, Path> paths = new ConcurrentHashMap<>();
+    private final Map<String, URL> urls = new ConcurrentHashMap<>();
+
+    /**
+     * Creates resolver.
+     *
+     * @param root directory with resources
+     */
+    public DirectoryResourceResolver(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Finds directory {@code resources} for classes from the same code source (directory or jar) as given class. Code
+     * source is:
+     * <ul>
+     *     <li>directory with classes - then resources are in {@code <classes directory>/../resources};</li>
+     *     <li>jar - then resources are in {@code <directory with jar>/../resources}.</li>
+     * </ul>
+     *
+     * @param anyClass any class of application
+     * @return path to directory with resources.
+     */
+    public static Path resourcesRootOf(Class<?> anyClass) {
+        try {
+            Path codeSource = Paths.get(anyClass.getProtectionDomain().getCodeSource().getLocation().toURI());
+            Path codeSourceDir = Files.isDirectory(codeSource) ? codeSource : codeSource.getParent();
+
+            return codeSourceDir.resolve("../resources").normalize();
+        } catch (URISyntaxException e) {
+            throw new InvalidPathSyntaxException(anyClass.getProtectionDomain().getCodeSource().getLocation().toString());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Path getPath(String name) {
+        return paths.computeIfAbsent(name, key -> root.resolve(key).normalize());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public URL getURL(String name) {
+        return urls.computeIfAbsent(name, key -> {
+            try {
+                return getPath(key).toUri().toURL();
+            } catch (MalformedURLException e) {
+                throw new InvalidPathSyntaxException(getPath(key).toString());
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InputStream openStream(String name) throws IOException {
+        return Files.newInputStream(getPath(name));
+    }
+}
@@ -0,0 +1,43 @@
+package util.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+
+/**
+ * Finds resources of application by their names (relative paths with slashes as separators, for example
+ * {@code "levels/classic.xml"}). Root of resources is found only once, when resolver is created, and resolved names are
+ * cached, so each lookup is just a map lookup.
+ *
+ * @see DirectoryResourceResolver
+ * @see ClasspathResourceResolver
+ */
+public interface ResourceResolver {
+    /**
+     * Returns path to resource in file system.
+     *
+     * @param name name of resource
+     * @return path to resource. Resource may not exist.
+     * @throws UnsupportedOperationException if resources aren't in file system (for example, they're packed in jar).
+     */
+    Path getPath(String name);
+
+    /**
+     * Returns URL of resource.
+     *
+     * @param name name of resource
+     * @return URL of resource.
+     * @throws IllegalArgumentException if there's no such resource and URL can't be made without it.
+     */
+    URL getURL(String name);
+
+    /**
+     * Opens resource for reading.
+     *
+     * @param name name of resource
+     * @return stream with content of resource. Caller must close it.
+     * @throws IOException if there's no such resource or it can't be opened.
+     */
+    InputStream openStream(String name) throws IOException;
+}
@@ -0,0 +1,142 @@
+package util.javafx.animation;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayDeque;
+
+/**
+ * Game loop for all {@link ExtendedAnimationTimer}s. Only this class is registered in JavaFX (as one common
+ * {@link AnimationTimer}), and on every pulse it calls active timers one by one, in order of their start. When there're
+ * no active timers, it unregisters itself, so idle application doesn't get pulses.
+ *
+ * <p>Active timers are kept in array, which only grows, so starting and stopping timers doesn't allocate anything in
+ * usual case. Timers, which are stopped during pulse, are removed from array after pulse.</p>
+ *
+ * <p>End actions of stopped timers are queued and run after pulse (new stages can't be shown during pulse), all actions
+ * of one pulse - in one {@link Platform#runLater(Runnable)} call.</p>
+ *
+ * <p><i><b>Note:</b> this class isn't thread-safe, it's used only on JavaFX Application Thread.</i></p>
+ */
+final class PulseMultiplexer {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private static PulseMultiplexer instance;
+    static PulseMultiplexer getInstance() {
+        if (instance == null)
+            instance = new PulseMultiplexer();
+        return instance;
+    }
+
+    private final AnimationTimer gameLoop = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            dispatch(now);
+        }
+    };
+    private boolean running = false;
+
+    /** Active timers. Cells of timers, which are stopped during pulse, are {@code null} until the end of pulse. */
+    private ExtendedAnimationTimer[] timers = new ExtendedAnimationTimer[INITIAL_CAPACITY];
+    private int timersCount = 0;
+    private boolean dispatching = false;
+
+    private final ArrayDeque<Runnable> endActions = new ArrayDeque<>();
+    private boolean endActionsScheduled = false;
+    private final Runnable endActionsRunner = this::runEndActions;
+
+    private PulseMultiplexer() {
+    }
+
+    void add(ExtendedAnimationTimer timer) {
+        if (timersCount == timers.length) {
+            ExtendedAnimationTimer[] newTimers = new ExtendedAnimationTimer[timers.length * 2];
+            System.arraycopy(timers, 0, newTimers, 0, timersCount);
+            timers = newTimers;
+        }
+        timers[timersCount++] = timer;
+
+        if (!running) {
+            gameLoop.start();
+            running = true;
+        }
+    }
+
+    void remove(ExtendedAnimationTimer timer) {
+        for (int i = 0; i < timersCount; i++) {
+            if (timers[i] == timer) {
+                timers[i] = null;
+                break;
+            }
+        }
+
+        if (!dispatching)
+            compact();
+    }
+
+    void enqueueEndAction(Runnable endAction) {
+        endActions.add(endAction);
+
+        if (!endActionsScheduled) {
+            Platform.runLater(endActionsRunner);
+            endActionsScheduled = true;
+        }
+    }
+
+    /**
+     * Calls all timers, which were active at the start of pulse. Timers started during pulse are called from the next
+     * pulse.
+     *
+     * @param now timestamp of pulse
+     */
+    private void dispatch(long now) {
+        final int count = timersCount;
+
+        dispatching = true;
+        try {
+            for (int i = 0; i < count; i++) {
+                ExtendedAnimationTimer timer = timers[i];
+                if (timer == null)
+                    continue;
+
+                try {
+                    timer.handle(now);
+                } catch (RuntimeException e) {
+                    // If an exception was thrown in #handle(long) method - stopping timer
+                    timer.stop();
+                    throw e;
+                }
+            }
+        } finally {
+            dispatching = false;
+            compact();
+        }
+    }
+
+    /**
+     * Removes empty cells of stopped timers, order of other timers isn't changed. Stops game loop if there're no timers.
+     */
+    private void compact() {
+        int newCount = 0;
+        for (int i = 0; i < timersCount; i++) {
+            if (timers[i] != null)
+                timers[newCount++] = timers[i];
+        }
+        for (int i = newCount; i < timersCount; i++)
+            timers[i] = null;
+        timersCount = newCount;
+
+        if (timersCount == 0 && running) {
+            gameLoop.stop();
+            running = false;
+        }
+    }
+
+    private void runEndActions() {
+        endActionsScheduled = false;
+
+        Runnable endAction;
+        while ((endAction = endActions.poll()) != null)
+            endAction.run();
+    }
+}
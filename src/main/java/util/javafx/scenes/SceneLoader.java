@@ -7,8 +7,6 @@ import util.io.InvalidPathSyntaxException;
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Class for productive loading scenes. What I mean using word <b>&#x00AB;productive&#x00BB;</b>? You must load scene
@@ -17,18 +15,20 @@ import java.util.Map;
  * <pre><code>
  * Parent root = FXMLLoader.load(new ByteArrayInputStream("path/to/fxml/file").getBytes()));
  * </code></pre>
+ *
+ * Loaded scenes are kept by {@link SceneRegistry}.
  */
 public class SceneLoader {
     /**
-     * Loads scene from single file.
+     * Loads nodes and controller of scene, but doesn't create {@link SceneContent} (so
+     * {@link mvc.help.FXController#init()} isn't called). Nodes aren't shown yet, so it can be done on any thread, and
+     * then {@link SceneContent} is created on JavaFX Application Thread.
      *
      * @param location location of {@code .fxml} file
-     * @return loaded {@link SceneContent}.
+     * @return loader with loaded root and controller.
      */
-    private static SceneContent loadScene(String location) {
+    public static FXMLLoader loadFXML(String location) {
         try {
-            SceneContent loadedScene;
-
             File fxmlFile = new File(location);
 
             if (!fxmlFile.exists())
@@ -49,33 +49,10 @@ public class SceneLoader {
             }
             currentLoader.setResources(Main.resourceBundle);
             currentLoader.load();
-            loadedScene = new SceneContent(currentLoader);
 
-            return loadedScene;
+            return currentLoader;
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
-
-    /**
-     * Loads all {@code .fxml} files in specified directory.
-     *
-     * @param location location of directory with files
-     * @return map, where key is name of file and value is {@link SceneContent} object.
-     * @throws IllegalArgumentException if location doesn't end with current file separator (UNIX (Mac OS and Linux - "/",
-     *                                  Windows - "//").
-     */
-    public static Map<String, SceneContent> loadAllFromDirectory(String location) {
-        if (!location.endsWith(File.separator))
-            throw new IllegalArgumentException("Invalid value of argument " +
-                    "\"location\": path doesn\'t end with file separator (\"" + File.separator + "\")!");
-
-        Map<String, SceneContent> loadedScenes = new HashMap<>();
-        File file = new File(location);
-
-        for (String fileName : file.list())
-            loadedScenes.put(fileName, loadScene(location + fileName));
-
-        return loadedScenes;
-    }
 }
@@ -0,0 +1,162 @@
+package util.javafx.scenes;
+
+import javafx.fxml.FXMLLoader;
+import mvc.help.FXController;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Registry of scenes, which loads each scene only when it's requested for the first time (see {@link #get(String)}).
+ * Scenes, which will be likely requested soon, can be {@link #prefetch(String...) prefetched}: their {@code .fxml} files
+ * are loaded in background thread, and only {@link SceneContent} is created when scene is requested.
+ *
+ * <p>Registry keeps not more than {@link #getCapacity() capacity} scenes. When new scene is loaded, scenes, which were
+ * requested least recently, are evicted (they'll be loaded again if they're requested). So only scenes, which user
+ * actually opens, are loaded, and rarely used scenes don't stay in memory. {@link #pin(String) Pinned} scenes are never
+ * evicted and aren't counted in capacity.</p>
+ *
+ * <p><i><b>Note:</b> {@link #get(String)} and {@link #prefetch(String...)} are called only on JavaFX Application
+ * Thread.</i></p>
+ */
+public class SceneRegistry {
+    /** Current scene and dialog, which is shown over it, mustn't be evicted. */
+    public static final int MIN_CAPACITY = 2;
+
+    /** Directory with {@code .fxml} files, it ends with file separator. */
+    private final String directory;
+    /** It's called for each loaded scene, before scene is returned for the first time. */
+    private final Consumer<SceneContent> onLoaded;
+
+    private final int capacity;
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** Scenes, which are never evicted. Only JavaFX Application Thread uses it. */
+    private final Set<String> pinnedScenes = new HashSet<>();
+    /** Loaded scenes in order of access: from least recently requested to most recently requested. */
+    private final LinkedHashMap<String, SceneContent> scenes = new LinkedHashMap<>(16, 0.75f, true);
+    /** Loaders of prefetched scenes, which aren't requested yet. */
+    private final Map<String, CompletableFuture<FXMLLoader>> prefetchedScenes = new ConcurrentHashMap<>();
+    private final ExecutorService prefetchThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SceneRegistry-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates registry.
+     *
+     * @param directory directory with {@code .fxml} files, it must end with file separator
+     * @param capacity  max count of kept scenes, it's at least {@link #MIN_CAPACITY}
+     * @param onLoaded  function, which is called for each loaded scene (for example, to setup fonts)
+     */
+    public SceneRegistry(String directory, int capacity, Consumer<SceneContent> onLoaded) {
+        this.directory = directory;
+        this.capacity = Math.max(MIN_CAPACITY, capacity);
+        this.onLoaded = onLoaded;
+    }
+
+    /**
+     * Gets scene, it's loaded if it isn't loaded yet. If scene is being prefetched, prefetching is waited.
+     *
+     * @param sceneIdentifier name of {@code .fxml} file
+     * @return scene.
+     * @throws RuntimeException if scene can't be loaded.
+     */
+    public SceneContent get(String sceneIdentifier) {
+        SceneContent sceneContent = scenes.get(sceneIdentifier);
+        if (sceneContent != null)
+            return sceneContent;
+
+        FXMLLoader loader = null;
+        CompletableFuture<FXMLLoader> prefetchedScene = prefetchedScenes.remove(sceneIdentifier);
+        if (prefetchedScene != null) {
+            try {
+                loader = prefetchedScene.join();
+            } catch (RuntimeException e) {
+                // Scene is loaded again below, so error is thrown from there, if it isn't accidental
+                loader = null;
+            }
+        }
+        if (loader == null)
+            loader = SceneLoader.loadFXML(directory + sceneIdentifier);
+
+        sceneContent = new SceneContent(loader);
+        onLoaded.accept(sceneContent);
+        scenes.put(sceneIdentifier, sceneContent);
+        evict();
+
+        return sceneContent;
+    }
+
+    public boolean isLoaded(String sceneIdentifier) {
+        return scenes.containsKey(sceneIdentifier);
+    }
+
+    /**
+     * Pins scene: when it's loaded, it's never evicted, and it isn't counted in {@link #getCapacity() capacity} (so it
+     * doesn't push out other scenes). Scene can be pinned before it's loaded.
+     *
+     * @param sceneIdentifier name of {@code .fxml} file
+     */
+    public void pin(String sceneIdentifier) {
+        pinnedScenes.add(sceneIdentifier);
+    }
+
+    /**
+     * Starts loading of {@code .fxml} files of scenes in background thread. Loaded, prefetched and prefetching scenes
+     * are skipped.
+     *
+     * @param sceneIdentifiers names of {@code .fxml} files
+     * @return future, which is completed when all files are loaded.
+     */
+    public CompletableFuture<Void> prefetch(String... sceneIdentifiers) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[sceneIdentifiers.length];
+
+        for (int i = 0; i < sceneIdentifiers.length; i++) {
+            if (scenes.containsKey(sceneIdentifiers[i])) {
+                futures[i] = CompletableFuture.completedFuture(null);
+            } else {
+                futures[i] = prefetchedScenes.computeIfAbsent(sceneIdentifiers[i], key ->
+                        CompletableFuture.supplyAsync(() -> SceneLoader.loadFXML(directory + key), prefetchThread));
+            }
+        }
+
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * Removes least recently requested scenes, which aren't pinned, while there're too many scenes. Controllers of
+     * evicted scenes are {@link FXController#shutdown() shut down}, so their animations and scheduled tasks don't run
+     * off-screen.
+     */
+    private void evict() {
+        int unpinnedCount = 0;
+        for (String sceneIdentifier : scenes.keySet()) {
+            if (!pinnedScenes.contains(sceneIdentifier))
+                unpinnedCount++;
+        }
+
+        Iterator<Map.Entry<String, SceneContent>> iterator = scenes.entrySet().iterator();
+        while (unpinnedCount > capacity && iterator.hasNext()) {
+            Map.Entry<String, SceneContent> scene = iterator.next();
+            if (!pinnedScenes.contains(scene.getKey())) {
+                iterator.remove();
+                unpinnedCount--;
+
+                if (scene.getValue().controller != null)
+                    scene.getValue().controller.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package util.xml;
+
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
+
+/**
+ * {@link XMLStreamReader}, that validates document by XSD schema while it's being read. Each event, that reader goes
+ * through, is passed to {@link ValidatorHandler}, so document is read only once and isn't kept in memory. If document
+ * isn't valid, {@link #next()} (or {@link #nextTag()}) throws {@link XMLStreamException} at the first invalid place.
+ *
+ * <p><i><b>Note:</b> document is fully validated only when reader reaches {@link XMLStreamConstants#END_DOCUMENT}.</i></p>
+ */
+public class ValidatingStreamReader extends StreamReaderDelegate {
+    private final ValidatorHandler validatorHandler;
+    /** Attributes of current element, object is reused for all elements. */
+    private final AttributesImpl attributes = new AttributesImpl();
+
+    /**
+     * Creates reader. Source reader must be namespace aware and must be at the start of document.
+     *
+     * @param reader source reader
+     * @param schema schema for validation
+     * @throws XMLStreamException if validator can't start.
+     */
+    public ValidatingStreamReader(XMLStreamReader reader, Schema schema) throws XMLStreamException {
+        super(reader);
+        this.validatorHandler = schema.newValidatorHandler();
+
+        validatorHandler.setDocumentLocator(new StreamLocator());
+        try {
+            validatorHandler.startDocument();
+        } catch (SAXException e) {
+            throw new XMLStreamException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int next() throws XMLStreamException {
+        int event = super.next();
+
+        try {
+            switch (event) {
+                case START_ELEMENT:
+                    for (int i = 0; i < getNamespaceCount(); i++)
+                        validatorHandler.startPrefixMapping(nullToEmpty(getNamespacePrefix(i)), getNamespaceURI(i));
+
+                    attributes.clear();
+                    for (int i = 0; i < getAttributeCount(); i++) {
+                        attributes.addAttribute(nullToEmpty(getAttributeNamespace(i)), getAttributeLocalName(i),
+                                qualifiedName(getAttributePrefix(i), getAttributeLocalName(i)), "CDATA",
+                                getAttributeValue(i));
+                    }
+
+                    validatorHandler.startElement(nullToEmpty(getNamespaceURI()), getLocalName(),
+                            qualifiedName(getPrefix(), getLocalName()), attributes);
+                    break;
+
+                case END_ELEMENT:
+                    validatorHandler.endElement(nullToEmpty(getNamespaceURI()), getLocalName(),
+                            qualifiedName(getPrefix(), getLocalName()));
+
+                    for (int i = 0; i < getNamespaceCount(); i++)
+                        validatorHandler.endPrefixMapping(nullToEmpty(getNamespacePrefix(i)));
+                    break;
+
+                case CHARACTERS:
+                case CDATA:
+                case SPACE:
+                    validatorHandler.characters(getTextCharacters(), getTextStart(), getTextLength());
+                    break;
+
+                case END_DOCUMENT:
+                    validatorHandler.endDocument();
+                    break;
+            }
+        } catch (SAXException e) {
+            throw new XMLStreamException(e.getMessage(), getLocation(), e);
+        }
+
+        return event;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Works through {@link #next()}, so skipped whitespaces and comments are validated too.</p>
+     */
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int event = next();
+        while ((event == CHARACTERS && isWhiteSpace()) || event == SPACE || event == COMMENT ||
+                event == PROCESSING_INSTRUCTION)
+            event = next();
+
+        if (event != START_ELEMENT && event != END_ELEMENT)
+            throw new XMLStreamException("Expected start or end tag", getLocation());
+        return event;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Works through {@link #next()}, so text is validated too.</p>
+     */
+    @Override
+    public String getElementText() throws XMLStreamException {
+        if (getEventType() != START_ELEMENT)
+            throw new XMLStreamException("Current event isn\'t start tag", getLocation());
+
+        StringBuilder text = new StringBuilder();
+        int event = next();
+        while (event != END_ELEMENT) {
+            if (event == CHARACTERS || event == CDATA || event == SPACE || event == ENTITY_REFERENCE)
+                text.append(getText());
+            else if (event != COMMENT && event != PROCESSING_INSTRUCTION)
+                throw new XMLStreamException("Unexpected event inside of text element", getLocation());
+            event = next();
+        }
+
+        return text.toString();
+    }
+
+    private static String nullToEmpty(String string) {
+        return string == null ? "" : string;
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+
+    /**
+     * Gives position of reader to validator, so validation errors contain line and column.
+     */
+    private class StreamLocator implements Locator {
+        @Override
+        public String getPublicId() {
+            Location location = getLocation();
+            return location == null ? null : location.getPublicId();
+        }
+
+        @Override
+        public String getSystemId() {
+            Location location = getLocation();
+            return location == null ? null : location.getSystemId();
+        }
+
+        @Override
+        public int getLineNumber() {
+            Location location = getLocation();
+            return location == null ? -1 : location.getLineNumber();
+        }
+
+        @Override
+        public int getColumnNumber() {
+            Location location = getLocation();
+            return location == null ? -1 : location.getColumnNumber();
+        }
+    }
+}
@@ -1,8 +1,51 @@
 package util.xml;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
 /**
- * Interface for class that can be serialized to XML format.
+ * Interface for class that can be serialized to XML format. Object is written to stream part by part, so big objects
+ * don't have to be built as one string.
  */
 public interface XMLSerializable {
-    String toXML();
+    /**
+     * Writes object as XML document.
+     *
+     * @param writer stream. It isn't closed, but it's flushed
+     * @throws IOException if stream can't be written.
+     */
+    void writeTo(Writer writer) throws IOException;
+
+    /**
+     * Writes object as XML document in UTF-8 (documents declare this encoding).
+     *
+     * @param stream stream. It isn't closed, but it's flushed
+     * @throws IOException if stream can't be written.
+     */
+    default void writeTo(OutputStream stream) throws IOException {
+        writeTo(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Serializes object to string. It's useful for small objects, big objects should be written by
+     * {@link #writeTo(Writer)}.
+     *
+     * @return XML document.
+     */
+    default String toXML() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeTo(writer);
+        } catch (IOException e) {
+            // StringWriter doesn't throw it
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
 }
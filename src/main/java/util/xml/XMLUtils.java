@@ -4,19 +4,55 @@ import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
 import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility-class with functions for XML.
+ *
+ * <p>Factories, parsers and compiled schemas are cached, so repeated loads don't pay for factory lookup and schema
+ * compilation. Compiled {@link Schema}s are thread-safe and shared by all threads, while parsers, validators and
+ * schema factories aren't thread-safe, so each thread has its own ones.</p>
  */
 public class XMLUtils {
+    /** Compiled schemas, key is absolute path to schema file. */
+    private static final Map<String, Schema> SCHEMAS = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<SchemaFactory> SCHEMA_FACTORY =
+            ThreadLocal.withInitial(() -> SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI));
+    /** Validators of current thread, key is absolute path to schema file. */
+    private static final ThreadLocal<Map<String, Validator>> VALIDATORS = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<DocumentBuilder> DOCUMENT_BUILDER = ThreadLocal.withInitial(() -> {
+        try {
+            DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+            documentBuilderFactory.setNamespaceAware(true);
+            return documentBuilderFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new RuntimeException(e);
+        }
+    });
+    /** Factory for streaming readers. It's configured once and then only creates readers, so it's shared. */
+    private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+    static {
+        INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    }
+
     /**
      * Validates XML document using XSD schema.
      *
@@ -26,9 +62,10 @@ public class XMLUtils {
      */
     public static boolean validate(Document document, String pathToSchema) {
         try {
-            SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-            Schema schema = factory.newSchema(new File(pathToSchema));
-            Validator validator = schema.newValidator();
+            String schemaKey = schemaKey(pathToSchema);
+            Validator validator = VALIDATORS.get().computeIfAbsent(schemaKey,
+                    key -> getSchema(pathToSchema).newValidator());
+            validator.reset();
 
             validator.validate(new DOMSource(document));
             return true;
@@ -37,6 +74,54 @@ public class XMLUtils {
         }
     }
 
+    /**
+     * Returns compiled XSD schema. Schema is compiled only on the first call for each file, then it's taken from cache.
+     *
+     * @param pathToSchema path to document with XSD schema
+     * @return compiled schema.
+     */
+    public static Schema getSchema(String pathToSchema) {
+        return SCHEMAS.computeIfAbsent(schemaKey(pathToSchema), key -> {
+            try {
+                return SCHEMA_FACTORY.get().newSchema(new File(key));
+            } catch (SAXException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+
+    private static String schemaKey(String pathToSchema) {
+        return new File(pathToSchema).getAbsolutePath();
+    }
+
+    /**
+     * Creates streaming reader, which validates document using XSD schema while document is being read (see
+     * {@link ValidatingStreamReader}).
+     *
+     * @param stream       stream with XML document. It isn't closed by reader
+     * @param systemId     system id of document (for example, its path), it's used in error messages
+     * @param pathToSchema path to document with XSD schema
+     * @return reader at the start of document.
+     * @throws XMLStreamException if reader can't be created.
+     */
+    public static XMLStreamReader newValidatingReader(InputStream stream, String systemId, String pathToSchema)
+            throws XMLStreamException {
+        return new ValidatingStreamReader(INPUT_FACTORY.createXMLStreamReader(systemId, stream),
+                getSchema(pathToSchema));
+    }
+
+    /**
+     * Creates streaming reader without validation. Reader is lazy: document is parsed only as far as it's read, so it
+     * can read part of document (for example, from the middle of file), if reading stops before the part ends.
+     *
+     * @param reader stream with XML. It isn't closed by reader
+     * @return reader at the start of document.
+     * @throws XMLStreamException if reader can't be created.
+     */
+    public static XMLStreamReader newReader(Reader reader) throws XMLStreamException {
+        return INPUT_FACTORY.createXMLStreamReader(reader);
+    }
+
     /**
      * Parses document from specified location and returns it.
      *
@@ -45,10 +130,10 @@ public class XMLUtils {
      */
     public static Document parseDocument(String path) {
         try {
-            DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-            documentBuilderFactory.setNamespaceAware(true);
-            return documentBuilderFactory.newDocumentBuilder().parse(new File(path));
-        } catch (ParserConfigurationException | IOException | SAXException e) {
+            DocumentBuilder documentBuilder = DOCUMENT_BUILDER.get();
+            documentBuilder.reset();
+            return documentBuilder.parse(new File(path));
+        } catch (IOException | SAXException e) {
             throw new RuntimeException(e);
         }
     }